@@ -2,8 +2,12 @@ package com.david.open.problem;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class PublicProblemApplication {
   public static void main(String[] args) {
     SpringApplication.run(PublicProblemApplication.class, args);
@@ -0,0 +1,27 @@
+package com.david.open.problem.cache;
+
+/**
+ * 题目详情缓存的命中情况。
+ *
+ * @param enabled        是否启用详情缓存
+ * @param sharedEnabled  是否启用共享二级缓存
+ * @param localSize      本地缓存当前条目数（估算）
+ * @param localHits      本地缓存命中次数（含版本过期的命中）
+ * @param localMisses    本地缓存未命中次数
+ * @param localStale     本地命中但版本已过期的次数
+ * @param localEvictions 本地缓存因容量或过期被淘汰的条目数
+ * @param sharedHits     二级缓存命中次数
+ * @param sharedMisses   二级缓存未命中次数
+ * @param sharedErrors   访问二级缓存出错的次数
+ */
+public record DetailCacheStats(
+        boolean enabled,
+        boolean sharedEnabled,
+        long localSize,
+        long localHits,
+        long localMisses,
+        long localStale,
+        long localEvictions,
+        long sharedHits,
+        long sharedMisses,
+        long sharedErrors) {}
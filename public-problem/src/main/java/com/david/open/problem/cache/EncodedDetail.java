@@ -0,0 +1,26 @@
+package com.david.open.problem.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已序列化的详情响应体：原始 JSON 字节及其 gzip 压缩结果。
+ *
+ * @param version  生成时题目的 {@code updated_at}
+ * @param identity 未压缩的 {@code ApiResponse} JSON
+ * @param gzip     gzip 压缩后的字节；响应体过小不值得压缩时为 {@code null}
+ */
+public record EncodedDetail(LocalDateTime version, byte[] identity, byte[] gzip) {
+
+    /** 客户端接受 gzip 且存在压缩版本时返回压缩字节，否则返回原始字节。 */
+    public byte[] body(boolean acceptsGzip) {
+        return acceptsGzip && gzip != null ? gzip : identity;
+    }
+
+    public boolean isGzipped(boolean acceptsGzip) {
+        return acceptsGzip && gzip != null;
+    }
+
+    int weight() {
+        return identity.length + (gzip != null ? gzip.length : 0);
+    }
+}
@@ -0,0 +1,112 @@
+package com.david.open.problem.cache;
+
+import com.david.core.http.ApiResponse;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.config.PublicProblemProperties.ResponseCache;
+import com.david.open.problem.dto.ProblemDetailResponse;
+import com.david.open.problem.support.DetailVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 热门题目详情的响应字节缓存：按 (slug, 语言及精简模式) 保存序列化后的 {@code ApiResponse} JSON 及其 gzip 版本，
+ * 命中时直接写出字节，省去每次请求的 Jackson 序列化与压缩。
+ *
+ * <p>与 {@link ProblemDetailCache} 相同，条目记录生成时的题目版本，版本不一致即重新生成；容量按字节数限制。
+ */
+@Component
+public class EncodedDetailCache {
+
+    private final ResponseCache settings;
+    private final ObjectMapper objectMapper;
+    private final Cache<EncodedKey, EncodedDetail> cache;
+
+    public EncodedDetailCache(
+            PublicProblemProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.settings = properties.getResponseCache();
+        this.objectMapper = objectMapper;
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumWeight(settings.getMaximumSize().toBytes())
+                        .weigher((EncodedKey key, EncodedDetail value) -> value.weight())
+                        .expireAfterWrite(settings.getTtl())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "problemDetailBytes");
+    }
+
+    public EncodedDetail get(DetailVersion version, Supplier<ProblemDetailResponse> loader) {
+        if (!settings.isEnabled() || version.updatedAt() == null) {
+            return encode(version, loader.get());
+        }
+        EncodedDetail cached = getIfCurrent(version);
+        return cached != null ? cached : put(version, loader.get());
+    }
+
+    /** 只读取与 {@code version} 一致的缓存字节，未命中返回 {@code null}，供不能在当前线程回源的调用方使用。 */
+    public EncodedDetail getIfCurrent(DetailVersion version) {
+        if (!settings.isEnabled() || version.updatedAt() == null) {
+            return null;
+        }
+        EncodedDetail cached =
+                cache.getIfPresent(new EncodedKey(version.slug(), version.variant()));
+        return cached != null && version.updatedAt().equals(cached.version()) ? cached : null;
+    }
+
+    /** 编码 {@code detail}，缓存开启且版本已知时写入缓存，返回编码结果。 */
+    public EncodedDetail put(DetailVersion version, ProblemDetailResponse detail) {
+        EncodedDetail fresh = encode(version, detail);
+        if (settings.isEnabled() && version.updatedAt() != null) {
+            cache.put(new EncodedKey(version.slug(), version.variant()), fresh);
+        }
+        return fresh;
+    }
+
+    /** 驱逐某道题所有语言的响应字节，返回驱逐的条目数。 */
+    public int evict(String slug) {
+        int removed = 0;
+        for (EncodedKey key : cache.asMap().keySet()) {
+            if (key.slug().equals(slug) && cache.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private EncodedDetail encode(DetailVersion version, ProblemDetailResponse detail) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(ApiResponse.success(detail));
+            byte[] gzip =
+                    identity.length >= settings.getMinCompressSize().toBytes()
+                            ? gzip(identity)
+                            : null;
+            return new EncodedDetail(version.updatedAt(), identity, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] source) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(source.length / 3 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(source);
+        }
+        return buffer.toByteArray();
+    }
+
+    record EncodedKey(String slug, String variant) {}
+}
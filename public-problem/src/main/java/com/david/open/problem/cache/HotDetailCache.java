@@ -0,0 +1,179 @@
+package com.david.open.problem.cache;
+
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.config.PublicProblemProperties.HotDetails;
+import com.david.open.problem.support.CountMinSketch;
+import com.david.open.problem.support.DetailVersion;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 识别当前最热门的题目详情，并把它们的预序列化响应常驻在本地。
+ *
+ * <p>每次详情请求计入 Count-Min 草图，估算频率超过阈值且进入前 K 名的 (slug, 语言, 精简模式) 成为热门键。
+ * 热门键的 {@link EncodedDetail} 保存在不参与容量淘汰的表中，由后台任务在题目版本变化时重新生成，
+ * 因此热门题目的请求既不回源数据库，也不会因为缓存淘汰而突然回源。草图与热门计数按周期减半，热度下降的键随之移出。
+ */
+@Slf4j
+@Component
+public class HotDetailCache {
+
+    private final HotDetails settings;
+    private final CountMinSketch sketch;
+    private final Map<HotKey, Long> candidates = new ConcurrentHashMap<>();
+    private final Map<HotKey, EncodedDetail> pinned = new ConcurrentHashMap<>();
+
+    /** 热门表已满时的最低估算频率，低于它的键无需进入同步区比较。 */
+    private volatile long floor;
+
+    public HotDetailCache(PublicProblemProperties properties) {
+        this.settings = properties.getHotDetails();
+        this.sketch = new CountMinSketch(settings.getSketchWidth());
+    }
+
+    public void record(DetailVersion version) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        HotKey key = HotKey.of(version);
+        long estimate = sketch.increment(key);
+        if (estimate < settings.getMinHits()) {
+            return;
+        }
+        if (candidates.computeIfPresent(key, (ignored, old) -> Math.max(old, estimate)) != null) {
+            return;
+        }
+        if (candidates.size() >= settings.getTopK() && estimate <= floor) {
+            return;
+        }
+        promote(key, estimate);
+    }
+
+    /** 返回与当前版本一致的常驻响应，未常驻或版本已变化时返回 {@code null}。 */
+    public EncodedDetail getIfCurrent(DetailVersion version) {
+        if (pinned.isEmpty() || version.updatedAt() == null) {
+            return null;
+        }
+        EncodedDetail detail = pinned.get(HotKey.of(version));
+        return detail != null && version.updatedAt().equals(detail.version()) ? detail : null;
+    }
+
+    /** 请求路径上刚生成的响应若属于热门键，立即常驻，无需等待后台刷新。 */
+    public void pinIfHot(DetailVersion version, EncodedDetail detail) {
+        pin(HotKey.of(version), detail);
+    }
+
+    /** 只常驻仍在热门表中的键，避免后台刷新与热度衰减并发时留下孤立条目。 */
+    public void pin(HotKey key, EncodedDetail detail) {
+        if (candidates.containsKey(key)) {
+            pinned.put(key, detail);
+        }
+    }
+
+    /** 当前热门键的快照，供后台刷新遍历。 */
+    public Set<HotKey> hotKeys() {
+        return Set.copyOf(candidates.keySet());
+    }
+
+    public synchronized void remove(HotKey key) {
+        candidates.remove(key);
+        pinned.remove(key);
+        updateFloor();
+    }
+
+    public int evict(String slug) {
+        int removed = 0;
+        for (HotKey key : pinned.keySet()) {
+            if (key.slug().equals(slug) && pinned.remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.hot-details.decay-interval:PT10S}",
+            fixedDelayString = "${ulticode.problem.hot-details.decay-interval:PT10S}")
+    public synchronized void decay() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        sketch.halve();
+        candidates.entrySet().removeIf(
+                entry -> {
+                    if (entry.getValue() >= settings.getMinHits()) {
+                        entry.setValue(entry.getValue() / 2);
+                        return false;
+                    }
+                    pinned.remove(entry.getKey());
+                    log.debug("题目详情 {} 热度下降，取消常驻", entry.getKey());
+                    return true;
+                });
+        updateFloor();
+    }
+
+    public HotDetailStats stats() {
+        List<HotDetailStats.Entry> entries = new ArrayList<>();
+        candidates.forEach(
+                (key, estimate) -> {
+                    EncodedDetail detail = pinned.get(key);
+                    entries.add(
+                            new HotDetailStats.Entry(
+                                    key.slug(),
+                                    key.lang(),
+                                    key.slim(),
+                                    estimate,
+                                    detail != null,
+                                    detail != null ? detail.weight() : 0));
+                });
+        entries.sort(Comparator.comparingLong(HotDetailStats.Entry::estimate).reversed());
+        return new HotDetailStats(
+                settings.isEnabled(),
+                settings.getTopK(),
+                settings.getMinHits(),
+                sketch.estimatedBytes(),
+                entries);
+    }
+
+    private synchronized void promote(HotKey key, long estimate) {
+        candidates.merge(key, estimate, Math::max);
+        if (candidates.size() > settings.getTopK()) {
+            HotKey coldest =
+                    candidates.entrySet().stream()
+                            .min(Map.Entry.comparingByValue())
+                            .map(Map.Entry::getKey)
+                            .orElse(null);
+            if (coldest != null) {
+                candidates.remove(coldest);
+                pinned.remove(coldest);
+            }
+        }
+        updateFloor();
+        log.debug("题目详情 {} 成为热门，估算频率 {}", key, estimate);
+    }
+
+    private void updateFloor() {
+        floor =
+                candidates.size() >= settings.getTopK()
+                        ? candidates.values().stream().mapToLong(Long::longValue).min().orElse(0)
+                        : 0;
+    }
+
+    /** 常驻响应的键，与详情响应字节缓存的区分粒度一致。 */
+    public record HotKey(String slug, String lang, boolean slim) {
+
+        static HotKey of(DetailVersion version) {
+            return new HotKey(version.slug(), version.lang(), version.slim());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.david.open.problem.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** 通过 {@code /actuator/hotproblems} 查看当前识别出的热门题目详情及其常驻状态。 */
+@Component
+@Endpoint(id = "hotproblems")
+public class HotDetailEndpoint {
+
+    private final HotDetailCache hotDetailCache;
+
+    public HotDetailEndpoint(HotDetailCache hotDetailCache) {
+        this.hotDetailCache = hotDetailCache;
+    }
+
+    @ReadOperation
+    public HotDetailStats stats() {
+        return hotDetailCache.stats();
+    }
+}
@@ -0,0 +1,29 @@
+package com.david.open.problem.cache;
+
+import java.util.List;
+
+/**
+ * 热门题目详情的识别与常驻情况。
+ *
+ * @param enabled     是否启用热门识别
+ * @param topK        最多常驻的热门详情个数
+ * @param minHits     成为热门所需的最低估算频率（每个衰减周期）
+ * @param sketchBytes 频率草图占用的字节数
+ * @param entries     当前热门键，按估算频率降序
+ */
+public record HotDetailStats(
+        boolean enabled, int topK, int minHits, long sketchBytes, List<Entry> entries) {
+
+    /**
+     * @param estimate    衰减后的估算访问次数
+     * @param pinned      是否已有常驻的预序列化响应
+     * @param pinnedBytes 常驻响应（含 gzip 版本）占用的字节数
+     */
+    public record Entry(
+            String slug,
+            String lang,
+            boolean slim,
+            long estimate,
+            boolean pinned,
+            int pinnedBytes) {}
+}
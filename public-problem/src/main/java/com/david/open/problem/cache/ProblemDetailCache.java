@@ -0,0 +1,309 @@
+package com.david.open.problem.cache;
+
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.config.PublicProblemProperties.DetailCache;
+import com.david.open.problem.dto.ProblemDetailResponse;
+import com.david.open.problem.support.DetailVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.redisson.api.RMap;
+import org.redisson.api.RMapReactive;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 题目详情的两级缓存：进程内 Caffeine 为一级，可选的 Redis 哈希为二级。
+ *
+ * <p>缓存键为 (slug, 语言)，每个条目记录生成时题目的 {@code updated_at}；读取时与调用方给出的当前版本比对，
+ * 版本不一致即视为失效，因此题目编辑后无需主动清理。二级缓存以 slug 为 Redis 键、语言为哈希字段，便于按 slug 整体驱逐。
+ *
+ * <p>同步方法以阻塞方式访问 Redis，只能在请求线程或工作线程上调用；响应式部署使用返回 {@link Mono} 的
+ * 对应方法，二级缓存经 Redisson 的响应式接口访问，不占用事件循环线程。
+ */
+@Slf4j
+@Component
+public class ProblemDetailCache {
+
+    private static final String METRIC_NAME = "problem.detail.cache";
+
+    private final DetailCache settings;
+    private final Cache<DetailKey, VersionedDetail> local;
+    private final RedissonClient redisson;
+    private final ObjectMapper objectMapper;
+    private final Counter localStale;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedErrors;
+
+    public ProblemDetailCache(
+            PublicProblemProperties properties,
+            ObjectProvider<RedissonClient> redisson,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.settings = properties.getDetailCache();
+        this.local =
+                Caffeine.newBuilder()
+                        .maximumSize(settings.getMaximumSize())
+                        .expireAfterWrite(settings.getTtl())
+                        .recordStats()
+                        .build();
+        this.redisson = settings.getShared().isEnabled() ? redisson.getIfAvailable() : null;
+        this.objectMapper = objectMapper;
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "problemDetail");
+        this.localStale = counter(meterRegistry, "local", "stale");
+        this.sharedHits = counter(meterRegistry, "shared", "hit");
+        this.sharedMisses = counter(meterRegistry, "shared", "miss");
+        this.sharedErrors = counter(meterRegistry, "shared", "error");
+    }
+
+    /**
+     * 取出与 {@code version} 一致的缓存详情，否则调用 {@code loader} 回源并写回两级缓存。
+     *
+     * @param lang    详情语言；精简详情传入 {@link DetailVersion#variant()}，与完整详情分开缓存
+     * @param version 题目当前的 {@code updated_at}；为空时不走缓存
+     */
+    public ProblemDetailResponse get(
+            String slug,
+            String lang,
+            LocalDateTime version,
+            Supplier<ProblemDetailResponse> loader) {
+        if (!settings.isEnabled() || version == null) {
+            return loader.get();
+        }
+        ProblemDetailResponse cached = getIfCurrent(slug, lang, version);
+        if (cached != null) {
+            return cached;
+        }
+        ProblemDetailResponse loaded = loader.get();
+        put(slug, lang, version, loaded);
+        return loaded;
+    }
+
+    /** 只读取与 {@code version} 一致的缓存详情，未命中返回 {@code null}，供批量查询挑出需要回源的题目。 */
+    public ProblemDetailResponse getIfCurrent(String slug, String lang, LocalDateTime version) {
+        if (!settings.isEnabled() || version == null) {
+            return null;
+        }
+        DetailKey key = new DetailKey(slug, lang);
+        ProblemDetailResponse cached = getLocal(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        return acceptShared(key, version, readShared(key));
+    }
+
+    /** 响应式部署下的 {@link #getIfCurrent}，未命中时以空结束。 */
+    public Mono<ProblemDetailResponse> getIfCurrentReactive(
+            String slug, String lang, LocalDateTime version) {
+        if (!settings.isEnabled() || version == null) {
+            return Mono.empty();
+        }
+        DetailKey key = new DetailKey(slug, lang);
+        ProblemDetailResponse cached = getLocal(key, version);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (redisson == null) {
+            return Mono.empty();
+        }
+        return readSharedReactive(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .mapNotNull(shared -> acceptShared(key, version, shared.orElse(null)));
+    }
+
+    public void put(String slug, String lang, LocalDateTime version, ProblemDetailResponse detail) {
+        if (!settings.isEnabled() || version == null || detail == null) {
+            return;
+        }
+        DetailKey key = new DetailKey(slug, lang);
+        VersionedDetail fresh = new VersionedDetail(version, detail);
+        local.put(key, fresh);
+        writeShared(key, fresh);
+    }
+
+    /** 响应式部署下的 {@link #put}，二级缓存写入完成（或失败被记录）后结束。 */
+    public Mono<Void> putReactive(
+            String slug, String lang, LocalDateTime version, ProblemDetailResponse detail) {
+        if (!settings.isEnabled() || version == null || detail == null) {
+            return Mono.empty();
+        }
+        DetailKey key = new DetailKey(slug, lang);
+        VersionedDetail fresh = new VersionedDetail(version, detail);
+        local.put(key, fresh);
+        if (redisson == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(
+                        () -> {
+                            RMapReactive<String, String> map = sharedMapReactive(key.slug());
+                            return map.fastPut(key.lang(), toJson(fresh))
+                                    .then(map.expire(settings.getShared().getTtl()));
+                        })
+                .onErrorResume(
+                        e -> {
+                            sharedErrors.increment();
+                            log.warn("写入题目 {} 的共享详情缓存失败: {}", key.slug(), e.getMessage());
+                            return Mono.empty();
+                        })
+                .then();
+    }
+
+    /** 驱逐某道题所有语言的缓存，返回本地驱逐的条目数。 */
+    public int evict(String slug) {
+        int removed = 0;
+        for (DetailKey key : local.asMap().keySet()) {
+            if (key.slug().equals(slug) && local.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        if (redisson != null) {
+            try {
+                redisson.getKeys().delete(sharedKey(slug));
+            } catch (Exception e) {
+                sharedErrors.increment();
+                log.warn("驱逐题目 {} 的共享详情缓存失败: {}", slug, e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    public DetailCacheStats stats() {
+        CacheStats stats = local.stats();
+        return new DetailCacheStats(
+                settings.isEnabled(),
+                redisson != null,
+                local.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                (long) localStale.count(),
+                stats.evictionCount(),
+                (long) sharedHits.count(),
+                (long) sharedMisses.count(),
+                (long) sharedErrors.count());
+    }
+
+    private ProblemDetailResponse getLocal(DetailKey key, LocalDateTime version) {
+        VersionedDetail cached = local.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (version.equals(cached.version())) {
+            return cached.detail();
+        }
+        localStale.increment();
+        local.invalidate(key);
+        return null;
+    }
+
+    /** 二级缓存读取结果与当前版本一致时回填一级缓存并返回，否则计为未命中。 */
+    private ProblemDetailResponse acceptShared(
+            DetailKey key, LocalDateTime version, VersionedDetail shared) {
+        if (shared != null && version.equals(shared.version())) {
+            sharedHits.increment();
+            local.put(key, shared);
+            return shared.detail();
+        }
+        if (redisson != null) {
+            sharedMisses.increment();
+        }
+        return null;
+    }
+
+    private VersionedDetail readShared(DetailKey key) {
+        if (redisson == null) {
+            return null;
+        }
+        try {
+            String json = sharedMap(key.slug()).get(key.lang());
+            return json == null ? null : objectMapper.readValue(json, VersionedDetail.class);
+        } catch (Exception e) {
+            sharedErrors.increment();
+            log.warn("读取题目 {} 的共享详情缓存失败: {}", key.slug(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeShared(DetailKey key, VersionedDetail detail) {
+        if (redisson == null) {
+            return;
+        }
+        try {
+            RMap<String, String> map = sharedMap(key.slug());
+            map.fastPut(key.lang(), toJson(detail));
+            map.expire(settings.getShared().getTtl());
+        } catch (Exception e) {
+            sharedErrors.increment();
+            log.warn("写入题目 {} 的共享详情缓存失败: {}", key.slug(), e.getMessage());
+        }
+    }
+
+    private Mono<VersionedDetail> readSharedReactive(DetailKey key) {
+        return sharedMapReactive(key.slug())
+                .get(key.lang())
+                .map(this::fromJson)
+                .onErrorResume(
+                        e -> {
+                            sharedErrors.increment();
+                            log.warn("读取题目 {} 的共享详情缓存失败: {}", key.slug(), e.getMessage());
+                            return Mono.empty();
+                        });
+    }
+
+    private String toJson(VersionedDetail detail) {
+        try {
+            return objectMapper.writeValueAsString(detail);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private VersionedDetail fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, VersionedDetail.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RMapReactive<String, String> sharedMapReactive(String slug) {
+        return redisson.reactive().getMap(sharedKey(slug), StringCodec.INSTANCE);
+    }
+
+    private RMap<String, String> sharedMap(String slug) {
+        return redisson.getMap(sharedKey(slug), StringCodec.INSTANCE);
+    }
+
+    private String sharedKey(String slug) {
+        return settings.getShared().getKeyPrefix() + slug;
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder(METRIC_NAME)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    record DetailKey(String slug, String lang) {}
+
+    record VersionedDetail(LocalDateTime version, ProblemDetailResponse detail) {}
+}
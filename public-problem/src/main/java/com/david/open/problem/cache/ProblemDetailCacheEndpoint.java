@@ -0,0 +1,45 @@
+package com.david.open.problem.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通过 {@code /actuator/problemdetailcache} 查看命中统计，或 DELETE {@code /{slug}} 驱逐单题的详情对象、
+ * 响应字节、起始代码与热门常驻响应。
+ */
+@Component
+@Endpoint(id = "problemdetailcache")
+public class ProblemDetailCacheEndpoint {
+
+    private final ProblemDetailCache problemDetailCache;
+    private final EncodedDetailCache encodedDetailCache;
+    private final StarterCodeCache starterCodeCache;
+    private final HotDetailCache hotDetailCache;
+
+    public ProblemDetailCacheEndpoint(
+            ProblemDetailCache problemDetailCache,
+            EncodedDetailCache encodedDetailCache,
+            StarterCodeCache starterCodeCache,
+            HotDetailCache hotDetailCache) {
+        this.problemDetailCache = problemDetailCache;
+        this.encodedDetailCache = encodedDetailCache;
+        this.starterCodeCache = starterCodeCache;
+        this.hotDetailCache = hotDetailCache;
+    }
+
+    @ReadOperation
+    public DetailCacheStats stats() {
+        return problemDetailCache.stats();
+    }
+
+    @DeleteOperation
+    public int evict(@Selector String slug) {
+        return problemDetailCache.evict(slug)
+                + encodedDetailCache.evict(slug)
+                + starterCodeCache.evict(slug)
+                + hotDetailCache.evict(slug);
+    }
+}
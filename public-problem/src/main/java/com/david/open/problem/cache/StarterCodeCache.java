@@ -0,0 +1,87 @@
+package com.david.open.problem.cache;
+
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.config.PublicProblemProperties.DetailCache;
+import com.david.open.problem.dto.StarterCodeResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * 按 (slug, 编程语言) 缓存单个语言的起始代码，容量与过期时间沿用详情缓存的配置。
+ *
+ * <p>与 {@link ProblemDetailCache} 相同，条目记录生成时题目的 {@code updated_at}，版本不一致即回源。
+ */
+@Component
+public class StarterCodeCache {
+
+    private final DetailCache settings;
+    private final Cache<StarterCodeKey, StarterCodeResponse> cache;
+
+    public StarterCodeCache(PublicProblemProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getDetailCache();
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(settings.getMaximumSize())
+                        .expireAfterWrite(settings.getTtl())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "problemStarterCode");
+    }
+
+    /**
+     * @param version 题目当前的 {@code updated_at}；为空时不走缓存
+     */
+    public StarterCodeResponse get(
+            String slug,
+            String languageCode,
+            LocalDateTime version,
+            Supplier<StarterCodeResponse> loader) {
+        if (!settings.isEnabled() || version == null) {
+            return loader.get();
+        }
+        StarterCodeResponse cached = getIfCurrent(slug, languageCode, version);
+        if (cached != null) {
+            return cached;
+        }
+        StarterCodeResponse fresh = loader.get();
+        put(slug, languageCode, fresh);
+        return fresh;
+    }
+
+    /** 只读取与 {@code version} 一致的缓存条目，未命中返回 {@code null}。 */
+    public StarterCodeResponse getIfCurrent(
+            String slug, String languageCode, LocalDateTime version) {
+        if (!settings.isEnabled() || version == null) {
+            return null;
+        }
+        StarterCodeResponse cached = cache.getIfPresent(new StarterCodeKey(slug, languageCode));
+        return cached != null && version.equals(cached.updatedAt()) ? cached : null;
+    }
+
+    public void put(String slug, String languageCode, StarterCodeResponse response) {
+        if (settings.isEnabled() && response != null && response.updatedAt() != null) {
+            cache.put(new StarterCodeKey(slug, languageCode), response);
+        }
+    }
+
+    /** 驱逐某道题所有语言的起始代码，返回驱逐的条目数。 */
+    public int evict(String slug) {
+        int removed = 0;
+        for (StarterCodeKey key : cache.asMap().keySet()) {
+            if (key.slug().equals(slug) && cache.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    record StarterCodeKey(String slug, String languageCode) {}
+}
@@ -0,0 +1,179 @@
+package com.david.open.problem.catalog;
+
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.support.ProblemSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 针对某个目录快照预先计算的排序结果：每种排序字段、每个方向各保存一份按序排列的快照序号。
+ *
+ * <p>默认排序（更新时间倒序）即快照序号本身，不额外保存。任意排序下的分页都只是对数组切片。
+ * 另存每个序号在各排序下的名次，供 {@link FacetIndex} 把筛选位图换算到名次空间。
+ */
+public final class CatalogOrderings {
+
+    private static final double MISSING = Double.NaN;
+
+    /** 除默认排序外的全部排序方式。 */
+    static final List<ProblemSort> NON_DEFAULT_SORTS = nonDefaultSorts();
+
+    private final CatalogSnapshot snapshot;
+    private final Map<ProblemSort.Key, int[]> ascending = new EnumMap<>(ProblemSort.Key.class);
+    private final Map<ProblemSort.Key, int[]> descending = new EnumMap<>(ProblemSort.Key.class);
+    private final Map<ProblemSort.Key, int[]> ascendingRanks =
+            new EnumMap<>(ProblemSort.Key.class);
+    private final Map<ProblemSort.Key, int[]> descendingRanks =
+            new EnumMap<>(ProblemSort.Key.class);
+
+    private CatalogOrderings(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public static CatalogOrderings build(CatalogSnapshot snapshot) {
+        CatalogOrderings orderings = new CatalogOrderings(snapshot);
+        Map<Integer, DifficultyInfo> difficulties = snapshot.difficulties();
+        orderings.add(
+                ProblemSort.Key.FRONTEND_ID,
+                ordinal -> {
+                    ProblemMetadata metadata = snapshot.metadata(ordinal);
+                    return metadata != null && metadata.frontendId() != null
+                            ? metadata.frontendId()
+                            : MISSING;
+                });
+        orderings.add(
+                ProblemSort.Key.FREQUENCY,
+                ordinal -> {
+                    ProblemMetadata metadata = snapshot.metadata(ordinal);
+                    return metadata != null && metadata.frequency() != null
+                            ? metadata.frequency()
+                            : MISSING;
+                });
+        orderings.add(
+                ProblemSort.Key.DIFFICULTY,
+                ordinal -> {
+                    Integer difficultyId = snapshot.difficultyId(ordinal);
+                    DifficultyInfo difficulty =
+                            difficultyId != null ? difficulties.get(difficultyId) : null;
+                    return difficulty != null ? difficultyRank(difficulty) : MISSING;
+                });
+        return orderings;
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /** 第 {@code position} 位的快照序号。 */
+    public int ordinalAt(ProblemSort sort, int position) {
+        if (sort.key() == ProblemSort.Key.UPDATED) {
+            return sort.descending() ? position : snapshot.size() - 1 - position;
+        }
+        int[] ordinals = (sort.descending() ? descending : ascending).get(sort.key());
+        return ordinals[position];
+    }
+
+    /** 快照序号 {@code ordinal} 在该排序下的名次，即 {@link #ordinalAt} 的逆映射。 */
+    public int rankOf(ProblemSort sort, int ordinal) {
+        if (sort.key() == ProblemSort.Key.UPDATED) {
+            return sort.descending() ? ordinal : snapshot.size() - 1 - ordinal;
+        }
+        int[] ranks = (sort.descending() ? descendingRanks : ascendingRanks).get(sort.key());
+        return ranks[ordinal];
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Map<ProblemSort.Key, int[]> arrays :
+                List.of(ascending, descending, ascendingRanks, descendingRanks)) {
+            for (int[] array : arrays.values()) {
+                bytes += 4L * array.length;
+            }
+        }
+        return bytes;
+    }
+
+    private void add(ProblemSort.Key key, IntToDoubleFunction extractor) {
+        int size = snapshot.size();
+        double[] values = new double[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            values[ordinal] = extractor.applyAsDouble(ordinal);
+        }
+        int[] up = sorted(values, false);
+        int[] down = sorted(values, true);
+        ascending.put(key, up);
+        descending.put(key, down);
+        ascendingRanks.put(key, inverse(up));
+        descendingRanks.put(key, inverse(down));
+    }
+
+    private static int[] inverse(int[] ordinals) {
+        int[] ranks = new int[ordinals.length];
+        for (int position = 0; position < ordinals.length; position++) {
+            ranks[ordinals[position]] = position;
+        }
+        return ranks;
+    }
+
+    private static List<ProblemSort> nonDefaultSorts() {
+        List<ProblemSort> sorts = new ArrayList<>();
+        for (ProblemSort.Key key : ProblemSort.Key.values()) {
+            for (boolean descending : new boolean[] {false, true}) {
+                ProblemSort sort = new ProblemSort(key, descending);
+                if (!sort.isDefault()) {
+                    sorts.add(sort);
+                }
+            }
+        }
+        return List.copyOf(sorts);
+    }
+
+    /** 非空值按方向排序，空值置后；同值按快照序号，即默认顺序。 */
+    private static int[] sorted(double[] values, boolean reverse) {
+        return Arrays.stream(boxedRange(values.length))
+                .sorted(
+                        (left, right) -> {
+                            double a = values[left];
+                            double b = values[right];
+                            boolean aMissing = Double.isNaN(a);
+                            boolean bMissing = Double.isNaN(b);
+                            if (aMissing || bMissing) {
+                                return aMissing == bMissing
+                                        ? Integer.compare(left, right)
+                                        : aMissing ? 1 : -1;
+                            }
+                            int compared = reverse ? Double.compare(b, a) : Double.compare(a, b);
+                            return compared != 0 ? compared : Integer.compare(left, right);
+                        })
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static Integer[] boxedRange(int size) {
+        Integer[] range = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            range[i] = i;
+        }
+        return range;
+    }
+
+    private static double difficultyRank(DifficultyInfo difficulty) {
+        String code = difficulty.code();
+        if ("easy".equalsIgnoreCase(code)) {
+            return 0;
+        }
+        if ("medium".equalsIgnoreCase(code)) {
+            return 1;
+        }
+        if ("hard".equalsIgnoreCase(code)) {
+            return 2;
+        }
+        return 3 + (difficulty.id() != null ? difficulty.id() : 0);
+    }
+}
@@ -0,0 +1,537 @@
+package com.david.open.problem.catalog;
+
+import com.david.open.problem.dto.ProblemCardView;
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.dto.ProblemCardView.ProblemStats;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.support.ProblemCursor;
+import com.david.open.problem.support.ProblemViews;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 已公开题目目录的不可变快照，按 {@code (updated_at DESC, id DESC)} 排列。
+ *
+ * <p>每道题在快照中的下标称为序号（ordinal），各列以原始类型数组按列存放；快照一经发布不再修改，
+ * 刷新时通过 {@link Builder} 复制出新快照再整体替换。
+ */
+public final class CatalogSnapshot {
+
+    static final int NONE = Integer.MIN_VALUE;
+
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long REFERENCE_BYTES = 4;
+    private static final long OBJECT_OVERHEAD_BYTES = 48;
+
+    private final long version;
+    private final long fingerprint;
+    private final Instant builtAt;
+    private final Watermarks watermarks;
+    private final long[] ids;
+    private final String[] slugs;
+    private final int[] difficultyIds;
+    private final int[] timeLimitMs;
+    private final int[] memoryLimitKb;
+    private final long[] updatedAtMicros;
+    private final long[][] tagIds;
+    private final List<List<TagInfo>> tagViews;
+    private final ProblemMetadata[] metadata;
+    private final Map<String, String[]> titlesByLang;
+    private final Map<Long, TagInfo> tags;
+    private final Map<Integer, DifficultyInfo> difficulties;
+    private final Map<String, Integer> ordinalBySlug;
+    private final Map<Long, Integer> ordinalById;
+    private final long estimatedBytes;
+
+    private CatalogSnapshot(
+            long version,
+            Instant builtAt,
+            Watermarks watermarks,
+            List<Row> rows,
+            Map<Long, TagInfo> tags,
+            Map<Integer, DifficultyInfo> difficulties) {
+        int size = rows.size();
+        this.version = version;
+        this.builtAt = builtAt;
+        this.watermarks = watermarks;
+        this.ids = new long[size];
+        this.slugs = new String[size];
+        this.difficultyIds = new int[size];
+        this.timeLimitMs = new int[size];
+        this.memoryLimitKb = new int[size];
+        this.updatedAtMicros = new long[size];
+        this.tagIds = new long[size][];
+        this.tagViews = new ArrayList<>(size);
+        this.metadata = new ProblemMetadata[size];
+        this.titlesByLang = new HashMap<>();
+        this.tags = Map.copyOf(tags);
+        this.difficulties = Map.copyOf(difficulties);
+        this.ordinalBySlug = new HashMap<>(size * 2);
+        this.ordinalById = new HashMap<>(size * 2);
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Row row = rows.get(ordinal);
+            ids[ordinal] = row.id;
+            slugs[ordinal] = row.slug;
+            difficultyIds[ordinal] = row.difficultyId;
+            timeLimitMs[ordinal] = row.timeLimitMs;
+            memoryLimitKb[ordinal] = row.memoryLimitKb;
+            updatedAtMicros[ordinal] = row.updatedAtMicros;
+            tagIds[ordinal] = row.tagIds;
+            tagViews.add(tagView(row.tagIds));
+            metadata[ordinal] = row.metadata;
+            for (Map.Entry<String, String> title : row.titles.entrySet()) {
+                titlesByLang.computeIfAbsent(title.getKey(), ignored -> new String[size])[ordinal] =
+                        title.getValue();
+            }
+            ordinalBySlug.put(row.slug, ordinal);
+            ordinalById.put(row.id, ordinal);
+        }
+        this.fingerprint = computeFingerprint(rows);
+        this.estimatedBytes = estimateBytes();
+    }
+
+    /** 内容与版本不变、只推进水位的副本，各列数组与原快照共享。 */
+    private CatalogSnapshot(CatalogSnapshot source, Watermarks watermarks) {
+        this.version = source.version;
+        this.fingerprint = source.fingerprint;
+        this.builtAt = source.builtAt;
+        this.watermarks = watermarks;
+        this.ids = source.ids;
+        this.slugs = source.slugs;
+        this.difficultyIds = source.difficultyIds;
+        this.timeLimitMs = source.timeLimitMs;
+        this.memoryLimitKb = source.memoryLimitKb;
+        this.updatedAtMicros = source.updatedAtMicros;
+        this.tagIds = source.tagIds;
+        this.tagViews = source.tagViews;
+        this.metadata = source.metadata;
+        this.titlesByLang = source.titlesByLang;
+        this.tags = source.tags;
+        this.difficulties = source.difficulties;
+        this.ordinalBySlug = source.ordinalBySlug;
+        this.ordinalById = source.ordinalById;
+        this.estimatedBytes = source.estimatedBytes;
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot(0, Instant.EPOCH, Watermarks.NONE, List.of(), Map.of(), Map.of());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 快照内容（题目各列、标题、标签与难度名称）的 64 位摘要。版本号只在本进程内递增，
+     * 摘要则在内容相同时跨实例、跨重启保持一致，可用作对外的缓存校验值。
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public Watermarks watermarks() {
+        return watermarks;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int ordinalOf(String slug) {
+        Integer ordinal = slug == null ? null : ordinalBySlug.get(slug);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public int ordinalOf(long id) {
+        Integer ordinal = ordinalById.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public long id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    public String slug(int ordinal) {
+        return slugs[ordinal];
+    }
+
+    public Integer difficultyId(int ordinal) {
+        return boxed(difficultyIds[ordinal]);
+    }
+
+    /** 返回内部数组，调用方只读。 */
+    public long[] tagIds(int ordinal) {
+        return tagIds[ordinal];
+    }
+
+    public ProblemMetadata metadata(int ordinal) {
+        return metadata[ordinal];
+    }
+
+    public LocalDateTime updatedAt(int ordinal) {
+        return fromMicros(updatedAtMicros[ordinal]);
+    }
+
+    public Map<Long, TagInfo> tags() {
+        return tags;
+    }
+
+    public Map<Integer, DifficultyInfo> difficulties() {
+        return difficulties;
+    }
+
+    public String title(int ordinal, List<String> languageOrder) {
+        for (String lang : languageOrder) {
+            String[] titles = titlesByLang.get(lang);
+            if (titles != null && titles[ordinal] != null) {
+                return titles[ordinal];
+            }
+        }
+        return slugs[ordinal];
+    }
+
+    public ProblemCursor cursorAt(int ordinal) {
+        return new ProblemCursor(updatedAt(ordinal), ids[ordinal]);
+    }
+
+    /** 返回排在游标之后的第一个序号，游标越过末尾时返回 {@link #size()}。 */
+    public int seekAfter(ProblemCursor cursor) {
+        long micros = toMicros(cursor.updatedAt());
+        long id = cursor.id();
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean before =
+                    updatedAtMicros[mid] > micros
+                            || (updatedAtMicros[mid] == micros && ids[mid] >= id);
+            if (before) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public List<TagInfo> tagInfos(int ordinal) {
+        return tagViews.get(ordinal);
+    }
+
+    public ProblemCardView card(int ordinal, List<String> languageOrder) {
+        return new ProblemCardView(
+                ids[ordinal],
+                slugs[ordinal],
+                title(ordinal, languageOrder),
+                difficulties.get(difficultyIds[ordinal]),
+                tagViews.get(ordinal),
+                new ProblemStats(boxed(timeLimitMs[ordinal]), boxed(memoryLimitKb[ordinal])),
+                metadata[ordinal],
+                updatedAt(ordinal));
+    }
+
+    private List<TagInfo> tagView(long[] problemTagIds) {
+        List<TagInfo> view = new ArrayList<>(problemTagIds.length);
+        for (long tagId : problemTagIds) {
+            TagInfo tag = tags.get(tagId);
+            if (tag != null) {
+                view.add(tag);
+            }
+        }
+        view.sort(ProblemViews.TAG_ORDER);
+        return List.copyOf(view);
+    }
+
+    CatalogSnapshot withWatermarks(Watermarks next) {
+        return next.equals(watermarks) ? this : new CatalogSnapshot(this, next);
+    }
+
+    Builder toBuilder() {
+        Builder builder = new Builder(tags, difficulties);
+        for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+            Row row = new Row(ids[ordinal]);
+            row.slug = slugs[ordinal];
+            row.difficultyId = difficultyIds[ordinal];
+            row.timeLimitMs = timeLimitMs[ordinal];
+            row.memoryLimitKb = memoryLimitKb[ordinal];
+            row.updatedAtMicros = updatedAtMicros[ordinal];
+            row.tagIds = tagIds[ordinal];
+            row.metadata = metadata[ordinal];
+            for (Map.Entry<String, String[]> titles : titlesByLang.entrySet()) {
+                String title = titles.getValue()[ordinal];
+                if (title != null) {
+                    row.titles.put(titles.getKey(), title);
+                }
+            }
+            builder.rows.put(row.id, row);
+        }
+        return builder;
+    }
+
+    private long computeFingerprint(List<Row> rows) {
+        Fnv hash = new Fnv();
+        for (Row row : rows) {
+            hash.add(row.id)
+                    .add(row.slug)
+                    .add(row.difficultyId)
+                    .add(row.timeLimitMs)
+                    .add(row.memoryLimitKb)
+                    .add(row.updatedAtMicros);
+            for (long tagId : row.tagIds) {
+                hash.add(tagId);
+            }
+            List<String> langs = new ArrayList<>(row.titles.keySet());
+            langs.sort(null);
+            for (String lang : langs) {
+                hash.add(lang).add(row.titles.get(lang));
+            }
+            hash.add(';');
+        }
+        List<Long> tagIdsInOrder = new ArrayList<>(tags.keySet());
+        tagIdsInOrder.sort(null);
+        for (Long tagId : tagIdsInOrder) {
+            TagInfo tag = tags.get(tagId);
+            hash.add(tag.id()).add(tag.name()).add(tag.slug());
+        }
+        List<Integer> difficultyIdsInOrder = new ArrayList<>(difficulties.keySet());
+        difficultyIdsInOrder.sort(null);
+        for (Integer difficultyId : difficultyIdsInOrder) {
+            DifficultyInfo difficulty = difficulties.get(difficultyId);
+            hash.add(difficulty.id()).add(difficulty.code()).add(difficulty.label());
+        }
+        return hash.value;
+    }
+
+    private long estimateBytes() {
+        int size = ids.length;
+        long bytes = ARRAY_HEADER_BYTES * 8 + (long) size * (8 + 4 + 4 + 4 + 8);
+        bytes += (long) size * REFERENCE_BYTES * 3;
+        bytes += (long) titlesByLang.size() * (ARRAY_HEADER_BYTES + size * REFERENCE_BYTES);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            bytes += stringBytes(slugs[ordinal]);
+            bytes += ARRAY_HEADER_BYTES + tagIds[ordinal].length * 8L;
+            ProblemMetadata meta = metadata[ordinal];
+            if (meta != null) {
+                bytes += OBJECT_OVERHEAD_BYTES;
+                for (String company : meta.companies()) {
+                    bytes += stringBytes(company);
+                }
+            }
+        }
+        for (String[] titles : titlesByLang.values()) {
+            for (String title : titles) {
+                bytes += stringBytes(title);
+            }
+        }
+        for (TagInfo tag : tags.values()) {
+            bytes += OBJECT_OVERHEAD_BYTES + stringBytes(tag.name()) + stringBytes(tag.slug());
+        }
+        bytes += (long) size * 2 * OBJECT_OVERHEAD_BYTES;
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD_BYTES + value.length() * 2L;
+    }
+
+    private static Integer boxed(int value) {
+        return value == NONE ? null : value;
+    }
+
+    static int unboxed(Integer value) {
+        return value == null ? NONE : value;
+    }
+
+    static long toMicros(LocalDateTime value) {
+        if (value == null) {
+            return Long.MIN_VALUE;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000L;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    /** 64 位 FNV-1a，字段之间插入分隔符，避免相邻字段拼接后产生相同的输入。 */
+    private static final class Fnv {
+
+        private long value = 0xcbf29ce484222325L;
+
+        Fnv add(long number) {
+            for (int shift = 0; shift < 64; shift += 8) {
+                mix((int) (number >>> shift) & 0xff);
+            }
+            return add('|');
+        }
+
+        Fnv add(String text) {
+            if (text != null) {
+                for (int i = 0; i < text.length(); i++) {
+                    mix(text.charAt(i));
+                }
+            }
+            return add('|');
+        }
+
+        Fnv add(char separator) {
+            mix(separator);
+            return this;
+        }
+
+        private void mix(int unit) {
+            value ^= unit;
+            value *= 0x100000001b3L;
+        }
+    }
+
+    /** 增量刷新使用的水位线，分别对应题目表与题面表的 {@code updated_at}。 */
+    public record Watermarks(LocalDateTime problems, LocalDateTime statements) {
+
+        static final Watermarks NONE = new Watermarks(null, null);
+    }
+
+    static final class Row {
+
+        private final long id;
+        private String slug;
+        private int difficultyId = NONE;
+        private int timeLimitMs = NONE;
+        private int memoryLimitKb = NONE;
+        private long updatedAtMicros = Long.MIN_VALUE;
+        private long[] tagIds = new long[0];
+        private ProblemMetadata metadata = ProblemMetadata.empty();
+        private final Map<String, String> titles = new LinkedHashMap<>();
+
+        private Row(long id) {
+            this.id = id;
+        }
+    }
+
+    /** 基于旧快照构造新快照的可变工作区，仅在刷新线程内使用。 */
+    static final class Builder {
+
+        private final Map<Long, Row> rows = new HashMap<>();
+        private final Map<Long, TagInfo> tags;
+        private final Map<Integer, DifficultyInfo> difficulties;
+
+        private Builder(Map<Long, TagInfo> tags, Map<Integer, DifficultyInfo> difficulties) {
+            this.tags = new HashMap<>(tags);
+            this.difficulties = new HashMap<>(difficulties);
+        }
+
+        boolean contains(long id) {
+            return rows.containsKey(id);
+        }
+
+        long updatedAtMicros(long id) {
+            Row row = rows.get(id);
+            return row == null ? Long.MIN_VALUE : row.updatedAtMicros;
+        }
+
+        String title(long id, String lang) {
+            Row row = rows.get(id);
+            return row == null ? null : row.titles.get(lang);
+        }
+
+        long[] tagIds(long id) {
+            Row row = rows.get(id);
+            return row == null ? new long[0] : row.tagIds;
+        }
+
+        Collection<Long> ids() {
+            return rows.keySet();
+        }
+
+        boolean remove(long id) {
+            return rows.remove(id) != null;
+        }
+
+        void putProblem(
+                long id,
+                String slug,
+                Integer difficultyId,
+                Integer timeLimitMs,
+                Integer memoryLimitKb,
+                LocalDateTime updatedAt,
+                ProblemMetadata metadata) {
+            Row row = rows.computeIfAbsent(id, Row::new);
+            row.slug = slug;
+            row.difficultyId = unboxed(difficultyId);
+            row.timeLimitMs = unboxed(timeLimitMs);
+            row.memoryLimitKb = unboxed(memoryLimitKb);
+            row.updatedAtMicros = toMicros(updatedAt);
+            row.metadata = metadata == null ? ProblemMetadata.empty() : metadata;
+        }
+
+        void putTitle(long id, String lang, String title) {
+            Row row = rows.get(id);
+            if (row == null || lang == null) {
+                return;
+            }
+            if (title == null) {
+                row.titles.remove(lang);
+            } else {
+                row.titles.put(lang.intern(), title.intern());
+            }
+        }
+
+        void putTagIds(long id, long[] tagIds) {
+            Row row = rows.get(id);
+            if (row != null) {
+                long[] sorted = tagIds.clone();
+                Arrays.sort(sorted);
+                row.tagIds = sorted;
+            }
+        }
+
+        boolean putTag(TagInfo tag) {
+            TagInfo interned =
+                    new TagInfo(
+                            tag.id(),
+                            tag.name() == null ? null : tag.name().intern(),
+                            tag.slug() == null ? null : tag.slug().intern());
+            return !Objects.equals(tags.put(tag.id(), interned), interned);
+        }
+
+        boolean putDifficulty(DifficultyInfo difficulty) {
+            return !Objects.equals(difficulties.put(difficulty.id(), difficulty), difficulty);
+        }
+
+        CatalogSnapshot build(long version, Instant builtAt, Watermarks watermarks) {
+            List<Row> ordered = new ArrayList<>(rows.values());
+            ordered.sort(
+                    Comparator.comparingLong((Row row) -> row.updatedAtMicros)
+                            .thenComparingLong(row -> row.id)
+                            .reversed());
+            return new CatalogSnapshot(version, builtAt, watermarks, ordered, tags, difficulties);
+        }
+    }
+}
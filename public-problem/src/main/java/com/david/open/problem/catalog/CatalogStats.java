@@ -0,0 +1,27 @@
+package com.david.open.problem.catalog;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * 目录快照的运行状态。
+ *
+ * @param enabled        是否启用内存目录
+ * @param ready          是否已完成首次加载
+ * @param version        快照版本号，每次替换递增
+ * @param problemCount   快照内的公开题目数
+ * @param builtAt        快照生成时间
+ * @param age            快照距今时长
+ * @param estimatedBytes 快照估算占用的堆内存
+ * @param watermark      题目表的增量水位
+ */
+public record CatalogStats(
+        boolean enabled,
+        boolean ready,
+        long version,
+        int problemCount,
+        Instant builtAt,
+        Duration age,
+        long estimatedBytes,
+        LocalDateTime watermark) {}
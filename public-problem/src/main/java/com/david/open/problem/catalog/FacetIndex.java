@@ -0,0 +1,343 @@
+package com.david.open.problem.catalog;
+
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.dto.ProblemFacets;
+import com.david.open.problem.dto.ProblemFacets.FacetValue;
+import com.david.open.problem.support.ProblemFilter;
+import com.david.open.problem.support.ProblemSort;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * 基于目录快照构建的倒排位图索引，按难度、标签、公司各维护一组 Roaring 位图。
+ *
+ * <p>位图中存放的是快照序号而非题目ID：序号本身按列表顺序排列，筛选结果顺序遍历即为分页顺序，
+ * 无需再排序。索引与构建它的快照绑定，查询时应使用 {@link #snapshot()} 渲染结果；同一快照的预排序结果
+ * {@link #orderings()} 也随索引一并构建，保证两者的序号一致。
+ *
+ * <p>每个取值另存一份序号数组，单一取值的随机抽取只需一次数组下标访问；并按每种非默认排序各存一份
+ * 名次位图，非默认排序下的筛选在名次空间求交，结果顺序遍历即为该排序下的分页顺序。
+ */
+public final class FacetIndex {
+
+    private static final Comparator<FacetValue> BY_COUNT =
+            Comparator.comparingInt(FacetValue::count)
+                    .reversed()
+                    .thenComparing(FacetValue::label, Comparator.nullsLast(String::compareTo));
+
+    private static final Facet EMPTY =
+            new Facet("", "", new RoaringBitmap(), new int[0], new HashMap<>());
+
+    private final CatalogSnapshot snapshot;
+    private final RoaringBitmap all;
+    private final Map<String, Facet> difficulties;
+    private final Map<String, Facet> tags;
+    private final Map<String, Facet> companies;
+    private final CatalogOrderings orderings;
+
+    private FacetIndex(
+            CatalogSnapshot snapshot,
+            Map<String, Facet> difficulties,
+            Map<String, Facet> tags,
+            Map<String, Facet> companies) {
+        this.snapshot = snapshot;
+        this.all = RoaringBitmap.bitmapOfRange(0, snapshot.size());
+        this.difficulties = difficulties;
+        this.tags = tags;
+        this.companies = companies;
+        this.orderings = CatalogOrderings.build(snapshot);
+        for (Map<String, Facet> facets : List.of(difficulties, tags, companies)) {
+            for (Facet facet : facets.values()) {
+                for (ProblemSort sort : CatalogOrderings.NON_DEFAULT_SORTS) {
+                    facet.ranked().put(sort, toRanks(facet.ordinals(), sort));
+                }
+            }
+        }
+    }
+
+    public static FacetIndex build(CatalogSnapshot snapshot) {
+        Map<Integer, FacetBuilder> byDifficulty = new HashMap<>();
+        Map<Long, FacetBuilder> byTag = new HashMap<>();
+        Map<String, FacetBuilder> byCompany = new HashMap<>();
+        Map<Long, TagInfo> tagInfos = snapshot.tags();
+        Map<Integer, DifficultyInfo> difficultyInfos = snapshot.difficulties();
+
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            Integer difficultyId = snapshot.difficultyId(ordinal);
+            DifficultyInfo difficulty =
+                    difficultyId != null ? difficultyInfos.get(difficultyId) : null;
+            if (difficulty != null && difficulty.code() != null) {
+                byDifficulty
+                        .computeIfAbsent(
+                                difficultyId,
+                                id -> new FacetBuilder(difficulty.code(), difficulty.label()))
+                        .add(ordinal);
+            }
+            for (long tagId : snapshot.tagIds(ordinal)) {
+                TagInfo tag = tagInfos.get(tagId);
+                if (tag != null && tag.slug() != null) {
+                    byTag.computeIfAbsent(tagId, id -> new FacetBuilder(tag.slug(), tag.name()))
+                            .add(ordinal);
+                }
+            }
+            ProblemMetadata metadata = snapshot.metadata(ordinal);
+            if (metadata != null) {
+                for (String company : metadata.companies()) {
+                    String key = ProblemFilter.normalizeValue(company);
+                    if (!key.isEmpty()) {
+                        byCompany
+                                .computeIfAbsent(key, ignored -> new FacetBuilder(key, company.trim()))
+                                .add(ordinal);
+                    }
+                }
+            }
+        }
+
+        Map<String, Facet> difficultyFacets = new LinkedHashMap<>();
+        byDifficulty.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> put(difficultyFacets, entry.getValue()));
+        Map<String, Facet> tagFacets = new HashMap<>();
+        byTag.values().forEach(builder -> put(tagFacets, builder));
+        Map<String, Facet> companyFacets = new HashMap<>();
+        byCompany.values().forEach(builder -> put(companyFacets, builder));
+        return new FacetIndex(snapshot, difficultyFacets, tagFacets, companyFacets);
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public CatalogOrderings orderings() {
+        return orderings;
+    }
+
+    /** 返回满足全部筛选条件的快照序号集合，调用方不得修改。 */
+    public RoaringBitmap match(ProblemFilter filter) {
+        return match(filter, null, null);
+    }
+
+    /**
+     * 返回满足全部筛选条件的题目在 {@code sort} 排序下的名次集合，调用方不得修改；
+     * 经 {@link CatalogOrderings#ordinalAt} 换回快照序号。默认排序下名次即快照序号。
+     */
+    public RoaringBitmap matchRanks(ProblemFilter filter, ProblemSort sort) {
+        return match(filter, null, sort.isDefault() ? null : sort);
+    }
+
+    public ProblemFacets facets(ProblemFilter filter, int maxValues) {
+        List<FacetValue> difficultyCounts =
+                count(
+                        difficulties,
+                        filter.difficulties(),
+                        match(filter, Dimension.DIFFICULTY),
+                        Integer.MAX_VALUE,
+                        null);
+        List<FacetValue> tagCounts =
+                count(tags, filter.tags(), match(filter, Dimension.TAG), maxValues, BY_COUNT);
+        List<FacetValue> companyCounts =
+                count(
+                        companies,
+                        filter.companies(),
+                        match(filter, Dimension.COMPANY),
+                        maxValues,
+                        BY_COUNT);
+        return new ProblemFacets(difficultyCounts, tagCounts, companyCounts);
+    }
+
+    /**
+     * 从满足筛选条件的题目中等概率抽取一道，返回其快照序号；没有符合条件的题目时返回 -1。
+     *
+     * <p>无筛选或只有一个筛选取值时直接按下标读取序号数组，组合条件时在求交后的位图上按秩选取。
+     */
+    public int sample(ProblemFilter filter, RandomGenerator random) {
+        if (snapshot.size() == 0) {
+            return -1;
+        }
+        if (filter.isEmpty()) {
+            return random.nextInt(snapshot.size());
+        }
+        Facet single = singleFacet(filter);
+        if (single != null) {
+            int[] ordinals = single.ordinals();
+            return ordinals.length > 0 ? ordinals[random.nextInt(ordinals.length)] : -1;
+        }
+        RoaringBitmap matched = match(filter);
+        int count = matched.getCardinality();
+        return count > 0 ? matched.select(random.nextInt(count)) : -1;
+    }
+
+    public long estimatedBytes() {
+        long bytes = all.getLongSizeInBytes() + orderings.estimatedBytes();
+        for (Map<String, Facet> facets : List.of(difficulties, tags, companies)) {
+            for (Facet facet : facets.values()) {
+                bytes += facet.bitmap().getLongSizeInBytes() + 4L * facet.ordinals().length;
+                for (RoaringBitmap ranks : facet.ranked().values()) {
+                    bytes += ranks.getLongSizeInBytes();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /** 筛选条件恰好只有一个取值时返回该取值，取值不存在时返回空取值；否则返回 {@code null}。 */
+    private Facet singleFacet(ProblemFilter filter) {
+        int values =
+                filter.difficulties().size() + filter.tags().size() + filter.companies().size();
+        if (values != 1) {
+            return null;
+        }
+        Facet facet;
+        if (!filter.difficulties().isEmpty()) {
+            facet = difficulties.get(filter.difficulties().iterator().next());
+        } else if (!filter.tags().isEmpty()) {
+            facet = tags.get(filter.tags().iterator().next());
+        } else {
+            facet = companies.get(filter.companies().iterator().next());
+        }
+        return facet != null ? facet : EMPTY;
+    }
+
+    private RoaringBitmap match(ProblemFilter filter, Dimension excluded) {
+        return match(filter, excluded, null);
+    }
+
+    /** {@code sort} 为 {@code null} 时在快照序号空间求交，否则在该排序的名次空间求交。 */
+    private RoaringBitmap match(ProblemFilter filter, Dimension excluded, ProblemSort sort) {
+        RoaringBitmap result = all;
+        if (excluded != Dimension.DIFFICULTY && !filter.difficulties().isEmpty()) {
+            RoaringBitmap union = new RoaringBitmap();
+            for (String code : filter.difficulties()) {
+                Facet facet = difficulties.get(code);
+                if (facet != null) {
+                    union.or(facet.bitmap(sort));
+                }
+            }
+            result = RoaringBitmap.and(result, union);
+        }
+        if (excluded != Dimension.TAG) {
+            result = intersect(result, tags, filter.tags(), sort);
+        }
+        if (excluded != Dimension.COMPANY) {
+            result = intersect(result, companies, filter.companies(), sort);
+        }
+        return result;
+    }
+
+    private static RoaringBitmap intersect(
+            RoaringBitmap base, Map<String, Facet> facets, Set<String> values, ProblemSort sort) {
+        RoaringBitmap result = base;
+        for (String value : values) {
+            Facet facet = facets.get(value);
+            if (facet == null) {
+                return new RoaringBitmap();
+            }
+            result = RoaringBitmap.and(result, facet.bitmap(sort));
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private static List<FacetValue> count(
+            Map<String, Facet> facets,
+            Set<String> selected,
+            RoaringBitmap base,
+            int maxValues,
+            Comparator<FacetValue> order) {
+        List<FacetValue> values = new ArrayList<>();
+        for (Facet facet : facets.values()) {
+            int count = RoaringBitmap.andCardinality(base, facet.bitmap());
+            boolean isSelected = selected.contains(facet.value());
+            if (count > 0 || isSelected) {
+                values.add(new FacetValue(facet.value(), facet.label(), count, isSelected));
+            }
+        }
+        if (order != null) {
+            values.sort(order);
+        }
+        if (values.size() <= maxValues) {
+            return values;
+        }
+        List<FacetValue> limited = new ArrayList<>(values.subList(0, maxValues));
+        for (FacetValue value : values.subList(maxValues, values.size())) {
+            if (value.selected()) {
+                limited.add(value);
+            }
+        }
+        return limited;
+    }
+
+    private static void put(Map<String, Facet> facets, FacetBuilder builder) {
+        builder.bitmap.runOptimize();
+        facets.putIfAbsent(
+                builder.value,
+                new Facet(
+                        builder.value,
+                        builder.label,
+                        builder.bitmap,
+                        builder.bitmap.toArray(),
+                        new HashMap<>()));
+    }
+
+    private RoaringBitmap toRanks(int[] ordinals, ProblemSort sort) {
+        int[] ranks = new int[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            ranks[i] = orderings.rankOf(sort, ordinals[i]);
+        }
+        Arrays.sort(ranks);
+        RoaringBitmap bitmap = RoaringBitmap.bitmapOf(ranks);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    private enum Dimension {
+        DIFFICULTY,
+        TAG,
+        COMPANY
+    }
+
+    /**
+     * @param ranked 各非默认排序下的名次位图，仅在索引构建期间写入
+     */
+    private record Facet(
+            String value,
+            String label,
+            RoaringBitmap bitmap,
+            int[] ordinals,
+            Map<ProblemSort, RoaringBitmap> ranked) {
+
+        private RoaringBitmap bitmap(ProblemSort sort) {
+            return sort == null ? bitmap : ranked.get(sort);
+        }
+    }
+
+    private static final class FacetBuilder {
+
+        private final String value;
+        private final String label;
+        private final RoaringBitmap bitmap = new RoaringBitmap();
+
+        private FacetBuilder(String value, String label) {
+            this.value = ProblemFilter.normalizeValue(value);
+            this.label = label;
+        }
+
+        private void add(int ordinal) {
+            bitmap.add(ordinal);
+        }
+    }
+}
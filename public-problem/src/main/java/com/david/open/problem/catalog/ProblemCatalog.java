@@ -0,0 +1,462 @@
+package com.david.open.problem.catalog;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.open.problem.catalog.CatalogSnapshot.Watermarks;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.entity.Problem;
+import com.david.open.problem.entity.ProblemStatement;
+import com.david.open.problem.entity.ProblemTag;
+import com.david.open.problem.mapper.ProblemMapper;
+import com.david.open.problem.mapper.ProblemStatementMapper;
+import com.david.open.problem.mapper.ProblemTagMapper;
+import com.david.open.problem.mapper.ProblemTagMapper.RelationChecksum;
+import com.david.open.problem.service.ProblemMetadataParser;
+import com.david.open.problem.support.PublishedProblems;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 维护已公开题目的内存目录快照。
+ *
+ * <p>启动后加载一次，此后按 {@code updated_at} 水位增量拉取题目与题面的变更，标签与难度名称取自
+ * {@link ReferenceDataRegistry}，写时复制出新快照后整体替换；
+ * {@code problem_tags} 没有时间戳，题目删除也不会推高水位，这两类变化由周期性的轻量对账兜底：
+ * 只读公开题目ID，标签关系表的行数与摘要变化时才读取全部关系。
+ */
+@Slf4j
+@Component
+public class ProblemCatalog {
+
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+
+    private final ProblemMapper problemMapper;
+    private final ProblemStatementMapper problemStatementMapper;
+    private final ProblemTagMapper problemTagMapper;
+    private final ReferenceDataRegistry referenceData;
+    private final ProblemMetadataParser metadataParser;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PublicProblemProperties properties;
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.empty();
+    private volatile boolean ready;
+    private RelationChecksum relationChecksum;
+
+    public ProblemCatalog(
+            ProblemMapper problemMapper,
+            ProblemStatementMapper problemStatementMapper,
+            ProblemTagMapper problemTagMapper,
+            ReferenceDataRegistry referenceData,
+            ProblemMetadataParser metadataParser,
+            ApplicationEventPublisher eventPublisher,
+            PublicProblemProperties properties) {
+        this.problemMapper = problemMapper;
+        this.problemStatementMapper = problemStatementMapper;
+        this.problemTagMapper = problemTagMapper;
+        this.referenceData = referenceData;
+        this.metadataParser = metadataParser;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean isServing() {
+        return properties.getCatalog().isEnabled() && ready;
+    }
+
+    public CatalogStats stats() {
+        CatalogSnapshot current = snapshot;
+        return new CatalogStats(
+                properties.getCatalog().isEnabled(),
+                ready,
+                current.version(),
+                current.size(),
+                current.builtAt(),
+                ready ? Duration.between(current.builtAt(), Instant.now()) : null,
+                current.estimatedBytes(),
+                current.watermarks().problems());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!properties.getCatalog().isEnabled()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("加载题目目录快照失败，列表查询暂时回退到数据库: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.catalog.refresh-interval:PT10S}",
+            fixedDelayString = "${ulticode.problem.catalog.refresh-interval:PT10S}")
+    public void scheduledRefresh() {
+        if (!properties.getCatalog().isEnabled()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("增量刷新题目目录失败: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.catalog.reconcile-interval:PT10M}",
+            fixedDelayString = "${ulticode.problem.catalog.reconcile-interval:PT10M}")
+    public void scheduledReconcile() {
+        if (!properties.getCatalog().isEnabled() || !ready) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("对账题目目录失败: {}", e.getMessage());
+        }
+    }
+
+    public synchronized CatalogSnapshot refresh() {
+        if (!ready) {
+            return loadInitial();
+        }
+        CatalogSnapshot base = snapshot;
+        Watermarks marks = base.watermarks();
+
+        List<Problem> problems =
+                problemMapper.selectList(
+                        catalogProblemQuery()
+                                .ge(
+                                        marks.problems() != null,
+                                        Problem::getUpdatedAt,
+                                        withOverlap(marks.problems())));
+        List<ProblemStatement> statements =
+                problemStatementMapper.selectList(
+                        titleQuery()
+                                .ge(
+                                        marks.statements() != null,
+                                        ProblemStatement::getUpdatedAt,
+                                        withOverlap(marks.statements())));
+
+        CatalogSnapshot.Builder builder = base.toBuilder();
+        Set<Long> changed = new LinkedHashSet<>();
+        Set<Long> removed = new LinkedHashSet<>();
+
+        ReferenceData dictionaries = referenceData.current();
+        boolean difficultiesChanged = applyDifficulties(builder, dictionaries);
+        Set<Long> renamedTags = applyTags(builder, dictionaries);
+        Set<Long> loaded = applyProblems(builder, problems, changed, removed);
+        for (ProblemStatement statement : statements) {
+            Long problemId = statement.getProblemId();
+            if (problemId == null || !builder.contains(problemId) || loaded.contains(problemId)) {
+                continue;
+            }
+            if (!Objects.equals(
+                    builder.title(problemId, statement.getLangCode()), statement.getTitle())) {
+                builder.putTitle(problemId, statement.getLangCode(), statement.getTitle());
+                changed.add(problemId);
+            }
+        }
+        if (!renamedTags.isEmpty()) {
+            for (Long id : builder.ids()) {
+                for (long tagId : builder.tagIds(id)) {
+                    if (renamedTags.contains(tagId)) {
+                        changed.add(id);
+                        break;
+                    }
+                }
+            }
+        }
+
+        Watermarks next =
+                new Watermarks(
+                        latest(marks.problems(), problems, Problem::getUpdatedAt),
+                        latest(marks.statements(), statements, ProblemStatement::getUpdatedAt));
+        if (changed.isEmpty()
+                && removed.isEmpty()
+                && renamedTags.isEmpty()
+                && !difficultiesChanged) {
+            // 只有未公开题目或内容未变的行越过水位时不发布新版本，但水位照常推进，避免每轮重复拉取
+            snapshot = base.withWatermarks(next);
+            return snapshot;
+        }
+        return publish(base, builder, next, changed, removed);
+    }
+
+    /**
+     * 只读取公开题目ID与标签关系，修正水位无法感知的删除与标签关联变化；标签关系先比对摘要，
+     * 未变化时不再读取全表。
+     */
+    public synchronized CatalogSnapshot reconcile() {
+        if (!ready) {
+            return loadInitial();
+        }
+        CatalogSnapshot base = snapshot;
+        CatalogSnapshot.Builder builder = base.toBuilder();
+        Set<Long> changed = new LinkedHashSet<>();
+        Set<Long> removed = new LinkedHashSet<>();
+
+        Set<Long> live = new HashSet<>();
+        for (Object id : problemMapper.selectObjs(PublishedProblems.query().select(Problem::getId))) {
+            live.add(((Number) id).longValue());
+        }
+        for (Long id : List.copyOf(builder.ids())) {
+            if (!live.contains(id) && builder.remove(id)) {
+                removed.add(id);
+            }
+        }
+        List<Long> missing = live.stream().filter(id -> !builder.contains(id)).toList();
+        for (List<Long> chunk : chunks(missing)) {
+            applyProblems(
+                    builder,
+                    problemMapper.selectList(catalogProblemQuery().in(Problem::getId, chunk)),
+                    changed,
+                    removed);
+        }
+
+        RelationChecksum checksum = problemTagMapper.selectChecksum();
+        if (!checksum.equals(relationChecksum)) {
+            reconcileTags(builder, changed);
+            relationChecksum = checksum;
+        }
+
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return base;
+        }
+        return publish(base, builder, base.watermarks(), changed, removed);
+    }
+
+    /** 全量读取标签关系并修正快照中不一致的题目，只在关系表摘要变化时执行。 */
+    private void reconcileTags(CatalogSnapshot.Builder builder, Set<Long> changed) {
+        Map<Long, long[]> relations = new HashMap<>();
+        List<ProblemTag> allRelations =
+                problemTagMapper.selectList(Wrappers.lambdaQuery(ProblemTag.class));
+        for (ProblemTag relation : allRelations) {
+            if (relation.getProblemId() == null || relation.getTagId() == null) {
+                continue;
+            }
+            relations.merge(
+                    relation.getProblemId(),
+                    new long[] {relation.getTagId()},
+                    (left, right) -> {
+                        long[] merged = Arrays.copyOf(left, left.length + 1);
+                        merged[left.length] = right[0];
+                        return merged;
+                    });
+        }
+        for (Long id : builder.ids()) {
+            long[] expected = relations.getOrDefault(id, new long[0]).clone();
+            Arrays.sort(expected);
+            if (!Arrays.equals(expected, builder.tagIds(id))) {
+                builder.putTagIds(id, expected);
+                changed.add(id);
+            }
+        }
+    }
+
+    private CatalogSnapshot loadInitial() {
+        CatalogSnapshot base = snapshot;
+        LocalDateTime statementMark = problemStatementMapper.selectLatestUpdatedAt();
+        List<Problem> problems =
+                problemMapper.selectList(selectCatalogColumns(PublishedProblems.query()));
+
+        CatalogSnapshot.Builder builder = base.toBuilder();
+        Set<Long> changed = new LinkedHashSet<>();
+        ReferenceData dictionaries = referenceData.current();
+        applyDifficulties(builder, dictionaries);
+        applyTags(builder, dictionaries);
+        applyProblems(builder, problems, changed, new HashSet<>());
+
+        Watermarks marks =
+                new Watermarks(
+                        latest(null, problems, Problem::getUpdatedAt), statementMark);
+        CatalogSnapshot loaded = publish(base, builder, marks, changed, Set.of());
+        ready = true;
+        log.info(
+                "题目目录快照加载完成: {} 道题, 约 {} KB",
+                loaded.size(),
+                loaded.estimatedBytes() / 1024);
+        return loaded;
+    }
+
+    private Set<Long> applyProblems(
+            CatalogSnapshot.Builder builder,
+            List<Problem> problems,
+            Set<Long> changed,
+            Set<Long> removed) {
+        Set<Long> loaded = new LinkedHashSet<>();
+        for (Problem problem : problems) {
+            Long id = problem.getId();
+            if (id == null) {
+                continue;
+            }
+            if (!PublishedProblems.isPublished(problem)) {
+                if (builder.remove(id)) {
+                    removed.add(id);
+                }
+                continue;
+            }
+            if (builder.contains(id)
+                    && builder.updatedAtMicros(id)
+                            == CatalogSnapshot.toMicros(problem.getUpdatedAt())) {
+                continue;
+            }
+            builder.putProblem(
+                    id,
+                    problem.getSlug(),
+                    problem.getDifficultyId(),
+                    problem.getTimeLimitMs(),
+                    problem.getMemoryLimitKb(),
+                    problem.getUpdatedAt(),
+                    metadataParser.parse(id, problem.getUpdatedAt(), problem.getMetaJson()));
+            loaded.add(id);
+            changed.add(id);
+            removed.remove(id);
+        }
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+
+        for (List<Long> chunk : chunks(List.copyOf(loaded))) {
+            for (ProblemStatement statement :
+                    problemStatementMapper.selectList(
+                            titleQuery().in(ProblemStatement::getProblemId, chunk))) {
+                builder.putTitle(
+                        statement.getProblemId(), statement.getLangCode(), statement.getTitle());
+            }
+            Map<Long, List<Long>> tagIds = new HashMap<>();
+            for (ProblemTag relation :
+                    problemTagMapper.selectList(
+                            Wrappers.lambdaQuery(ProblemTag.class)
+                                    .in(ProblemTag::getProblemId, chunk))) {
+                if (relation.getTagId() != null) {
+                    tagIds.computeIfAbsent(relation.getProblemId(), ignored -> new ArrayList<>())
+                            .add(relation.getTagId());
+                }
+            }
+            for (Long id : chunk) {
+                builder.putTagIds(
+                        id,
+                        tagIds.getOrDefault(id, List.of()).stream()
+                                .mapToLong(Long::longValue)
+                                .toArray());
+            }
+        }
+
+        return loaded;
+    }
+
+    private Set<Long> applyTags(CatalogSnapshot.Builder builder, ReferenceData dictionaries) {
+        Set<Long> renamed = new LinkedHashSet<>();
+        for (TagInfo tag : dictionaries.tags()) {
+            if (builder.putTag(tag)) {
+                renamed.add(tag.id());
+            }
+        }
+        return renamed;
+    }
+
+    private boolean applyDifficulties(
+            CatalogSnapshot.Builder builder, ReferenceData dictionaries) {
+        boolean changed = false;
+        for (DifficultyInfo difficulty : dictionaries.difficulties()) {
+            changed |= builder.putDifficulty(difficulty);
+        }
+        return changed;
+    }
+
+    private CatalogSnapshot publish(
+            CatalogSnapshot base,
+            CatalogSnapshot.Builder builder,
+            Watermarks marks,
+            Set<Long> changed,
+            Set<Long> removed) {
+        CatalogSnapshot next = builder.build(versions.incrementAndGet(), Instant.now(), marks);
+        snapshot = next;
+        log.debug(
+                "题目目录快照 v{}: 变更 {} 道, 移除 {} 道", next.version(), changed.size(), removed.size());
+        eventPublisher.publishEvent(new ProblemCatalogRefreshedEvent(base, next, changed, removed));
+        return next;
+    }
+
+    private LambdaQueryWrapper<Problem> catalogProblemQuery() {
+        return selectCatalogColumns(Wrappers.lambdaQuery(Problem.class));
+    }
+
+    private static LambdaQueryWrapper<Problem> selectCatalogColumns(
+            LambdaQueryWrapper<Problem> query) {
+        return query.select(
+                Problem::getId,
+                Problem::getSlug,
+                Problem::getDifficultyId,
+                Problem::getTimeLimitMs,
+                Problem::getMemoryLimitKb,
+                Problem::getIsPublic,
+                Problem::getLifecycleStatus,
+                Problem::getReviewStatus,
+                Problem::getMetaJson,
+                Problem::getUpdatedAt);
+    }
+
+    private LambdaQueryWrapper<ProblemStatement> titleQuery() {
+        return Wrappers.lambdaQuery(ProblemStatement.class)
+                .select(
+                        ProblemStatement::getProblemId,
+                        ProblemStatement::getLangCode,
+                        ProblemStatement::getTitle,
+                        ProblemStatement::getUpdatedAt);
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        int batchSize = Math.max(properties.getCatalog().getBatchSize(), 1);
+        List<List<Long>> result = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            result.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        return result;
+    }
+
+    private static LocalDateTime withOverlap(LocalDateTime watermark) {
+        return watermark == null ? null : watermark.minus(WATERMARK_OVERLAP);
+    }
+
+    private static <T> LocalDateTime latest(
+            LocalDateTime current, List<T> rows, Function<T, LocalDateTime> extractor) {
+        LocalDateTime latest = current;
+        for (T row : rows) {
+            LocalDateTime value = extractor.apply(row);
+            if (value != null && (latest == null || value.isAfter(latest))) {
+                latest = value;
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,29 @@
+package com.david.open.problem.catalog;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/** 通过 {@code /actuator/problemcatalog} 查看快照状态或手动触发增量刷新。 */
+@Component
+@Endpoint(id = "problemcatalog")
+public class ProblemCatalogEndpoint {
+
+    private final ProblemCatalog problemCatalog;
+
+    public ProblemCatalogEndpoint(ProblemCatalog problemCatalog) {
+        this.problemCatalog = problemCatalog;
+    }
+
+    @ReadOperation
+    public CatalogStats stats() {
+        return problemCatalog.stats();
+    }
+
+    @WriteOperation
+    public CatalogStats refresh() {
+        problemCatalog.refresh();
+        return problemCatalog.stats();
+    }
+}
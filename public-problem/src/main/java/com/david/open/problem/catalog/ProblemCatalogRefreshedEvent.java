@@ -0,0 +1,23 @@
+package com.david.open.problem.catalog;
+
+import java.util.Set;
+
+/**
+ * 目录快照替换后发布的事件，携带本次新增/变更与移除的题目ID，供派生索引做增量维护。
+ *
+ * @param previous   替换前的快照
+ * @param current    替换后的快照
+ * @param changedIds 新增或内容有变化的题目
+ * @param removedIds 下线或被删除的题目
+ */
+public record ProblemCatalogRefreshedEvent(
+        CatalogSnapshot previous,
+        CatalogSnapshot current,
+        Set<Long> changedIds,
+        Set<Long> removedIds) {
+
+    public ProblemCatalogRefreshedEvent {
+        changedIds = Set.copyOf(changedIds);
+        removedIds = Set.copyOf(removedIds);
+    }
+}
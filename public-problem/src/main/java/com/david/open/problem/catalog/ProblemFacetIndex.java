@@ -0,0 +1,55 @@
+package com.david.open.problem.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 持有与当前目录快照对应的 {@link FacetIndex}，快照替换后整体重建。
+ *
+ * <p>重建只是一次对快照的线性扫描，题目规模在万级以内时耗时为毫秒级，因此不做增量维护。
+ */
+@Slf4j
+@Component
+public class ProblemFacetIndex {
+
+    private final ProblemCatalog problemCatalog;
+
+    private volatile FacetIndex index;
+
+    public ProblemFacetIndex(ProblemCatalog problemCatalog) {
+        this.problemCatalog = problemCatalog;
+    }
+
+    public FacetIndex current() {
+        FacetIndex current = index;
+        CatalogSnapshot snapshot = problemCatalog.snapshot();
+        if (current != null && current.snapshot().version() >= snapshot.version()) {
+            return current;
+        }
+        return rebuild(snapshot);
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(ProblemCatalogRefreshedEvent event) {
+        rebuild(event.current());
+    }
+
+    private synchronized FacetIndex rebuild(CatalogSnapshot snapshot) {
+        FacetIndex current = index;
+        if (current != null && current.snapshot().version() >= snapshot.version()) {
+            return current;
+        }
+        long started = System.nanoTime();
+        FacetIndex next = FacetIndex.build(snapshot);
+        index = next;
+        log.debug(
+                "题目筛选索引 v{} 重建完成: {} 道题, 约 {} 字节, 耗时 {} µs",
+                snapshot.version(),
+                snapshot.size(),
+                next.estimatedBytes(),
+                (System.nanoTime() - started) / 1_000);
+        return next;
+    }
+}
@@ -0,0 +1,118 @@
+package com.david.open.problem.catalog;
+
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 难度、语言、标签三张字典表的不可变副本。
+ *
+ * <p>难度与语言ID取自自增主键且数量极少，直接以ID为下标存入数组；标签按ID排序后二分查找。
+ */
+public final class ReferenceData {
+
+    static final int MAX_DENSE_ID = 4096;
+
+    private final Instant loadedAt;
+    private final DifficultyInfo[] difficulties;
+    private final LanguageRef[] languages;
+    private final long[] tagIds;
+    private final TagInfo[] tags;
+    private final int difficultyCount;
+    private final int languageCount;
+
+    ReferenceData(
+            Instant loadedAt,
+            Collection<DifficultyInfo> difficulties,
+            Collection<LanguageRef> languages,
+            Collection<TagInfo> tags) {
+        this.loadedAt = loadedAt;
+        this.difficulties =
+                new DifficultyInfo[denseLength(difficulties.stream().map(DifficultyInfo::id))];
+        for (DifficultyInfo difficulty : difficulties) {
+            if (isDense(difficulty.id())) {
+                this.difficulties[difficulty.id()] = difficulty;
+            }
+        }
+        this.languages = new LanguageRef[denseLength(languages.stream().map(LanguageRef::id))];
+        for (LanguageRef language : languages) {
+            if (isDense(language.id())) {
+                this.languages[language.id()] = language;
+            }
+        }
+        this.difficultyCount = (int) Arrays.stream(this.difficulties).filter(Objects::nonNull).count();
+        this.languageCount = (int) Arrays.stream(this.languages).filter(Objects::nonNull).count();
+
+        TagInfo[] sorted =
+                tags.stream()
+                        .filter(tag -> tag.id() != null)
+                        .sorted(Comparator.comparingLong(TagInfo::id))
+                        .toArray(TagInfo[]::new);
+        this.tags = sorted;
+        this.tagIds = Arrays.stream(sorted).mapToLong(TagInfo::id).toArray();
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public DifficultyInfo difficulty(Integer id) {
+        return id != null && id >= 0 && id < difficulties.length ? difficulties[id] : null;
+    }
+
+    public LanguageRef language(Integer id) {
+        return id != null && id >= 0 && id < languages.length ? languages[id] : null;
+    }
+
+    public TagInfo tag(Long id) {
+        if (id == null) {
+            return null;
+        }
+        int index = Arrays.binarySearch(tagIds, id);
+        return index >= 0 ? tags[index] : null;
+    }
+
+    public List<DifficultyInfo> difficulties() {
+        List<DifficultyInfo> result = new ArrayList<>(difficultyCount);
+        for (DifficultyInfo difficulty : difficulties) {
+            if (difficulty != null) {
+                result.add(difficulty);
+            }
+        }
+        return result;
+    }
+
+    public List<TagInfo> tags() {
+        return List.of(tags);
+    }
+
+    public int difficultyCount() {
+        return difficultyCount;
+    }
+
+    public int languageCount() {
+        return languageCount;
+    }
+
+    public int tagCount() {
+        return tags.length;
+    }
+
+    static boolean isDense(Integer id) {
+        return id != null && id >= 0 && id < MAX_DENSE_ID;
+    }
+
+    private static int denseLength(Stream<Integer> ids) {
+        return ids.filter(ReferenceData::isDense).mapToInt(Integer::intValue).max().orElse(-1) + 1;
+    }
+
+    public record LanguageRef(Integer id, String code, String displayName) {}
+}
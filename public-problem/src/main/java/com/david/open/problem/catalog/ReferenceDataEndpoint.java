@@ -0,0 +1,38 @@
+package com.david.open.problem.catalog;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/** 通过 {@code /actuator/referencedata} 查看字典加载情况或手动重载。 */
+@Component
+@Endpoint(id = "referencedata")
+public class ReferenceDataEndpoint {
+
+    private final ReferenceDataRegistry registry;
+
+    public ReferenceDataEndpoint(ReferenceDataRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Stats stats() {
+        return Stats.of(registry.current());
+    }
+
+    @WriteOperation
+    public Stats refresh() {
+        return Stats.of(registry.refresh());
+    }
+
+    public record Stats(Instant loadedAt, int difficulties, int languages, int tags) {
+
+        static Stats of(ReferenceData data) {
+            return new Stats(
+                    data.loadedAt(), data.difficultyCount(), data.languageCount(), data.tagCount());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.david.open.problem.catalog;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.open.problem.catalog.ReferenceData.LanguageRef;
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.entity.Difficulty;
+import com.david.open.problem.entity.Language;
+import com.david.open.problem.entity.Tag;
+import com.david.open.problem.mapper.DifficultyMapper;
+import com.david.open.problem.mapper.LanguageMapper;
+import com.david.open.problem.mapper.TagMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 难度、语言、标签字典的进程内注册表，启动时加载，之后定时或按需整体重载。
+ *
+ * <p>查询命中不到的ID时会触发一次重载（同一时间窗口内最多一次），以便及时看到新增的字典项。
+ */
+@Slf4j
+@Component
+public class ReferenceDataRegistry {
+
+    private static final Duration MISS_RELOAD_INTERVAL = Duration.ofSeconds(30);
+
+    private final DifficultyMapper difficultyMapper;
+    private final LanguageMapper languageMapper;
+    private final TagMapper tagMapper;
+
+    private volatile ReferenceData data;
+
+    public ReferenceDataRegistry(
+            DifficultyMapper difficultyMapper, LanguageMapper languageMapper, TagMapper tagMapper) {
+        this.difficultyMapper = difficultyMapper;
+        this.languageMapper = languageMapper;
+        this.tagMapper = tagMapper;
+    }
+
+    public ReferenceData current() {
+        ReferenceData current = data;
+        return current != null ? current : refresh();
+    }
+
+    public DifficultyInfo difficulty(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        DifficultyInfo difficulty = current().difficulty(id);
+        return difficulty != null ? difficulty : reloadOnMiss().difficulty(id);
+    }
+
+    public LanguageRef language(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        LanguageRef language = current().language(id);
+        return language != null ? language : reloadOnMiss().language(id);
+    }
+
+    public TagInfo tag(Long id) {
+        if (id == null) {
+            return null;
+        }
+        TagInfo tag = current().tag(id);
+        return tag != null ? tag : reloadOnMiss().tag(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            current();
+        } catch (Exception e) {
+            log.warn("加载字典数据失败: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.reference-data.refresh-interval:PT5M}",
+            fixedDelayString = "${ulticode.problem.reference-data.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("刷新字典数据失败: {}", e.getMessage());
+        }
+    }
+
+    public synchronized ReferenceData refresh() {
+        List<DifficultyInfo> difficulties =
+                difficultyMapper.selectList(Wrappers.lambdaQuery(Difficulty.class)).stream()
+                        .map(
+                                difficulty ->
+                                        DifficultyInfo.of(difficulty.getId(), difficulty.getCode()))
+                        .toList();
+        List<LanguageRef> languages =
+                languageMapper
+                        .selectList(
+                                Wrappers.lambdaQuery(Language.class)
+                                        .select(
+                                                Language::getId,
+                                                Language::getCode,
+                                                Language::getDisplayName))
+                        .stream()
+                        .map(
+                                language ->
+                                        new LanguageRef(
+                                                language.getId(),
+                                                language.getCode(),
+                                                language.getDisplayName()))
+                        .toList();
+        List<TagInfo> tags =
+                tagMapper
+                        .selectList(
+                                Wrappers.lambdaQuery(Tag.class)
+                                        .select(Tag::getId, Tag::getName, Tag::getSlug))
+                        .stream()
+                        .map(
+                                tag ->
+                                        new TagInfo(
+                                                tag.getId(),
+                                                intern(tag.getName()),
+                                                intern(tag.getSlug())))
+                        .toList();
+        for (DifficultyInfo difficulty : difficulties) {
+            if (!ReferenceData.isDense(difficulty.id())) {
+                log.warn("难度ID {} 超出字典数组范围，已忽略", difficulty.id());
+            }
+        }
+        for (LanguageRef language : languages) {
+            if (!ReferenceData.isDense(language.id())) {
+                log.warn("语言ID {} 超出字典数组范围，已忽略", language.id());
+            }
+        }
+        ReferenceData loaded = new ReferenceData(Instant.now(), difficulties, languages, tags);
+        data = loaded;
+        return loaded;
+    }
+
+    private ReferenceData reloadOnMiss() {
+        ReferenceData current = data;
+        if (isRecent(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = data;
+            return isRecent(current) ? current : refresh();
+        }
+    }
+
+    private static boolean isRecent(ReferenceData data) {
+        return data != null
+                && data.loadedAt().plus(MISS_RELOAD_INTERVAL).isAfter(Instant.now());
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+}
@@ -0,0 +1,243 @@
+package com.david.open.problem.catalog;
+
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.support.ProblemFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 相似题目的稀疏 top-K 表：每道题预先保存与其最相似的 K 道题，查询时直接读取。
+ *
+ * <p>题目的特征为标签集合与公司集合的并集，相似度取两者特征集合的 Jaccard 系数。计算某道题的 top-K 时
+ * 只沿特征的倒排表累加交集大小，不与无共同特征的题目比较。目录事件到达时只重算受影响的题目：特征变化的题目本身、
+ * 与其新特征有交集的题目，以及原本把变化或移除的题目列为相似题的题目。
+ */
+@Slf4j
+@Component
+public class SimilarProblemIndex {
+
+    private static final String TAG_FEATURE = "t:";
+    private static final String COMPANY_FEATURE = "c:";
+    private static final Comparator<Neighbor> BY_SCORE =
+            Comparator.comparingDouble(Neighbor::score)
+                    .reversed()
+                    .thenComparingLong(Neighbor::problemId);
+
+    private final ProblemCatalog problemCatalog;
+    private final int maxResults;
+
+    private final Map<String, Integer> featureIds = new HashMap<>();
+    private final Map<Long, int[]> features = new HashMap<>();
+    private final Map<Integer, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, List<Neighbor>> neighbors = new ConcurrentHashMap<>();
+
+    private volatile long catalogVersion = -1;
+
+    public SimilarProblemIndex(ProblemCatalog problemCatalog, PublicProblemProperties properties) {
+        this.problemCatalog = problemCatalog;
+        this.maxResults = Math.max(properties.getSimilar().getMaxResults(), 1);
+    }
+
+    public int maxResults() {
+        return maxResults;
+    }
+
+    /** 返回与题目最相似的至多 {@code limit} 道题，按相似度降序；题目不在目录中时返回空列表。 */
+    public List<Neighbor> similarTo(long problemId, int limit) {
+        ensureCurrent();
+        List<Neighbor> result = neighbors.getOrDefault(problemId, List.of());
+        return result.size() <= limit ? result : result.subList(0, limit);
+    }
+
+    @EventListener
+    public synchronized void onCatalogRefreshed(ProblemCatalogRefreshedEvent event) {
+        if (catalogVersion >= event.current().version()) {
+            return;
+        }
+        if (catalogVersion != event.previous().version()) {
+            rebuild(event.current());
+            return;
+        }
+        long started = System.nanoTime();
+        Set<Long> touched = new HashSet<>();
+        Set<Long> dirty = new HashSet<>();
+        for (Long id : event.removedIds()) {
+            int[] previous = features.remove(id);
+            if (previous != null) {
+                unpost(id, previous);
+                neighbors.remove(id);
+                touched.add(id);
+            }
+        }
+        for (Long id : event.changedIds()) {
+            int[] next = featuresOf(event.current(), id);
+            int[] previous = features.getOrDefault(id, new int[0]);
+            if (Arrays.equals(previous, next)) {
+                continue;
+            }
+            unpost(id, previous);
+            post(id, next);
+            touched.add(id);
+            dirty.add(id);
+            for (int feature : next) {
+                dirty.addAll(postings.get(feature));
+            }
+        }
+        if (!touched.isEmpty()) {
+            neighbors.forEach(
+                    (id, list) -> {
+                        for (Neighbor neighbor : list) {
+                            if (touched.contains(neighbor.problemId())) {
+                                dirty.add(id);
+                                break;
+                            }
+                        }
+                    });
+            for (Long id : dirty) {
+                if (features.containsKey(id)) {
+                    neighbors.put(id, computeTopK(id));
+                } else {
+                    neighbors.remove(id);
+                }
+            }
+            log.debug(
+                    "相似题目索引增量更新 v{}: 特征变化 {} 道, 重算 {} 道, 耗时 {} µs",
+                    event.current().version(),
+                    touched.size(),
+                    dirty.size(),
+                    (System.nanoTime() - started) / 1_000);
+        }
+        catalogVersion = event.current().version();
+    }
+
+    /**
+     * 只在尚未建立时按当前快照构建。之后的快照一律由目录事件增量应用：快照先于事件发布，
+     * 两者之间到达的请求继续读旧表，不在请求线程上全量重建。
+     */
+    private void ensureCurrent() {
+        if (catalogVersion >= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (catalogVersion < 0) {
+                rebuild(problemCatalog.snapshot());
+            }
+        }
+    }
+
+    private void rebuild(CatalogSnapshot snapshot) {
+        long started = System.nanoTime();
+        features.clear();
+        postings.clear();
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            long id = snapshot.id(ordinal);
+            post(id, featuresOf(snapshot, id));
+        }
+        Map<Long, List<Neighbor>> computed = new HashMap<>();
+        for (Long id : features.keySet()) {
+            computed.put(id, computeTopK(id));
+        }
+        neighbors.keySet().retainAll(computed.keySet());
+        neighbors.putAll(computed);
+        catalogVersion = snapshot.version();
+        log.debug(
+                "相似题目索引 v{} 重建完成: {} 道题, {} 个特征, 耗时 {} ms",
+                snapshot.version(),
+                features.size(),
+                postings.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private List<Neighbor> computeTopK(long id) {
+        int[] own = features.get(id);
+        if (own == null || own.length == 0) {
+            return List.of();
+        }
+        Map<Long, Integer> overlap = new HashMap<>();
+        for (int feature : own) {
+            for (Long other : postings.get(feature)) {
+                if (other != id) {
+                    overlap.merge(other, 1, Integer::sum);
+                }
+            }
+        }
+        List<Neighbor> candidates = new ArrayList<>(overlap.size());
+        overlap.forEach(
+                (other, shared) -> {
+                    int union = own.length + features.get(other).length - shared;
+                    candidates.add(new Neighbor(other, (double) shared / union));
+                });
+        candidates.sort(BY_SCORE);
+        return List.copyOf(
+                candidates.size() <= maxResults ? candidates : candidates.subList(0, maxResults));
+    }
+
+    private void post(long id, int[] featureSet) {
+        if (featureSet.length == 0) {
+            features.remove(id);
+            return;
+        }
+        features.put(id, featureSet);
+        for (int feature : featureSet) {
+            postings.computeIfAbsent(feature, ignored -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void unpost(long id, int[] featureSet) {
+        for (int feature : featureSet) {
+            Set<Long> posting = postings.get(feature);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(feature);
+                }
+            }
+        }
+    }
+
+    /** 题目的特征ID，已排序去重；题目不在快照中时为空数组。 */
+    private int[] featuresOf(CatalogSnapshot snapshot, long id) {
+        int ordinal = snapshot.ordinalOf(id);
+        if (ordinal < 0) {
+            return new int[0];
+        }
+        Set<Integer> result = new TreeSet<>();
+        for (long tagId : snapshot.tagIds(ordinal)) {
+            result.add(featureId(TAG_FEATURE + tagId));
+        }
+        ProblemMetadata metadata = snapshot.metadata(ordinal);
+        if (metadata != null) {
+            for (String company : metadata.companies()) {
+                String key = ProblemFilter.normalizeValue(company);
+                if (!key.isEmpty()) {
+                    result.add(featureId(COMPANY_FEATURE + key));
+                }
+            }
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int featureId(String feature) {
+        return featureIds.computeIfAbsent(feature, ignored -> featureIds.size());
+    }
+
+    /**
+     * @param score 两道题特征集合的 Jaccard 系数，取值 (0, 1]
+     */
+    public record Neighbor(long problemId, double score) {}
+}
@@ -0,0 +1,167 @@
+package com.david.open.problem.catalog;
+
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.dto.TagSummary;
+import com.david.open.problem.support.ResourceVersion;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 全部标签及其公开题目数，随目录快照增量维护。
+ *
+ * <p>快照替换事件携带变更与移除的题目ID，这里只对这些题目在新旧快照中的标签做加减，无需重新统计
+ * {@code problem_tags}；事件不连续（如首次加载）时才按整个快照重算。标签列表与计数未变化时版本保持不变，
+ * 客户端的条件请求可以持续命中。
+ */
+@Slf4j
+@Component
+public class TagCatalog {
+
+    private static final Comparator<TagSummary> BY_COUNT =
+            Comparator.comparingInt(TagSummary::problemCount)
+                    .reversed()
+                    .thenComparing(TagSummary::name, Comparator.nullsLast(String::compareTo));
+
+    private final ProblemCatalog problemCatalog;
+
+    private volatile TagCounts counts;
+
+    public TagCatalog(ProblemCatalog problemCatalog) {
+        this.problemCatalog = problemCatalog;
+    }
+
+    public boolean isServing() {
+        return problemCatalog.isServing();
+    }
+
+    /** 按题目数降序返回全部标签，调用方不得修改。 */
+    public List<TagSummary> tags() {
+        return current().tags();
+    }
+
+    public ResourceVersion version() {
+        TagCounts current = current();
+        return ResourceVersion.ofTags(current.fingerprint(), current.changedAt());
+    }
+
+    @EventListener
+    public synchronized void onCatalogRefreshed(ProblemCatalogRefreshedEvent event) {
+        TagCounts current = counts;
+        if (current != null && current.catalogVersion() >= event.current().version()) {
+            return;
+        }
+        if (current == null || current.catalogVersion() != event.previous().version()) {
+            counts = rebuild(event.current(), current);
+            return;
+        }
+        Map<Long, Integer> next = new HashMap<>(current.byTag());
+        for (Long id : event.changedIds()) {
+            adjust(next, event.previous(), id, -1);
+            adjust(next, event.current(), id, 1);
+        }
+        for (Long id : event.removedIds()) {
+            adjust(next, event.previous(), id, -1);
+        }
+        counts = TagCounts.of(event.current(), next, current);
+    }
+
+    /** 只在尚未统计时按当前快照重算；之后的快照由目录事件增量应用，事件到达前继续返回上一份计数。 */
+    private TagCounts current() {
+        TagCounts current = counts;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = counts;
+            if (current == null) {
+                current = rebuild(problemCatalog.snapshot(), null);
+                counts = current;
+            }
+            return current;
+        }
+    }
+
+    private static TagCounts rebuild(CatalogSnapshot snapshot, TagCounts previous) {
+        Map<Long, Integer> byTag = new HashMap<>();
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            for (long tagId : snapshot.tagIds(ordinal)) {
+                byTag.merge(tagId, 1, Integer::sum);
+            }
+        }
+        log.debug("标签计数按目录快照 v{} 重算: {} 个标签", snapshot.version(), byTag.size());
+        return TagCounts.of(snapshot, byTag, previous);
+    }
+
+    private static void adjust(
+            Map<Long, Integer> byTag, CatalogSnapshot snapshot, long problemId, int delta) {
+        int ordinal = snapshot.ordinalOf(problemId);
+        if (ordinal < 0) {
+            return;
+        }
+        for (long tagId : snapshot.tagIds(ordinal)) {
+            Integer updated = byTag.merge(tagId, delta, Integer::sum);
+            if (updated != null && updated <= 0) {
+                byTag.remove(tagId);
+            }
+        }
+    }
+
+    /**
+     * @param fingerprint 标签列表内容的 64 位摘要，内容不变时跨实例、跨重启保持一致
+     * @param changedAt   内容最近一次变化的时间
+     */
+    private record TagCounts(
+            long catalogVersion,
+            Map<Long, Integer> byTag,
+            List<TagSummary> tags,
+            long fingerprint,
+            Instant changedAt) {
+
+        static TagCounts of(
+                CatalogSnapshot snapshot, Map<Long, Integer> byTag, TagCounts previous) {
+            List<TagSummary> tags = new ArrayList<>(snapshot.tags().size());
+            for (TagInfo tag : snapshot.tags().values()) {
+                tags.add(
+                        new TagSummary(
+                                tag.id(), tag.name(), tag.slug(), byTag.getOrDefault(tag.id(), 0)));
+            }
+            tags.sort(BY_COUNT);
+            long fingerprint = fingerprint(tags);
+            Instant changedAt =
+                    previous != null && previous.fingerprint() == fingerprint
+                            ? previous.changedAt()
+                            : snapshot.builtAt();
+            return new TagCounts(
+                    snapshot.version(),
+                    Map.copyOf(byTag),
+                    List.copyOf(tags),
+                    fingerprint,
+                    changedAt);
+        }
+
+        private static long fingerprint(List<TagSummary> tags) {
+            long hash = 0xcbf29ce484222325L;
+            for (TagSummary tag : tags) {
+                String entry =
+                        tag.id() + ":" + tag.slug() + ":" + tag.name() + ":" + tag.problemCount();
+                for (int i = 0; i < entry.length(); i++) {
+                    hash ^= entry.charAt(i);
+                    hash *= 0x100000001b3L;
+                }
+                hash ^= ';';
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
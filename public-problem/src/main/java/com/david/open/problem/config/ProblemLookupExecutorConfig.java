@@ -0,0 +1,24 @@
+package com.david.open.problem.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ProblemLookupExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor problemLookupExecutor(PublicProblemProperties properties) {
+        PublicProblemProperties.Lookups lookups = properties.getLookups();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(lookups.getPoolSize());
+        executor.setMaxPoolSize(lookups.getPoolSize());
+        executor.setQueueCapacity(lookups.getQueueCapacity());
+        executor.setThreadNamePrefix("problem-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,191 @@
+package com.david.open.problem.config;
+
+import lombok.Data;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * public-problem 服务的可调参数，对应配置前缀 {@code ulticode.problem}。
+ *
+ * <p>定时任务的周期直接写在 {@code @Scheduled} 的占位符中，这里只承载运行期读取的开关与容量。
+ */
+@Data
+@ConfigurationProperties(prefix = "ulticode.problem")
+public class PublicProblemProperties {
+
+    private final Catalog catalog = new Catalog();
+    private final DetailCache detailCache = new DetailCache();
+    private final ResponseCache responseCache = new ResponseCache();
+    private final HotDetails hotDetails = new HotDetails();
+    private final Metadata metadata = new Metadata();
+    private final Lookups lookups = new Lookups();
+    private final DetailBatching detailBatching = new DetailBatching();
+    private final Facets facets = new Facets();
+    private final Search search = new Search();
+    private final Similar similar = new Similar();
+    private final ReadModel readModel = new ReadModel();
+    private final Export export = new Export();
+
+    @Data
+    public static class Catalog {
+
+        /** 是否由内存目录快照承接列表查询，关闭后回退到逐次查库。 */
+        private boolean enabled = true;
+
+        /** 初次加载与对账时单条 IN 查询携带的最大题目数。 */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Facets {
+
+        /** 标签、公司分面各自最多返回的取值个数（按计数降序截取，已选中的取值总会返回）。 */
+        private int maxValues = 100;
+    }
+
+    @Data
+    public static class Search {
+
+        /** 是否构建进程内全文索引并开放搜索接口。 */
+        private boolean enabled = true;
+
+        /** 单次搜索最多可翻到的命中位置，超出部分不再返回。 */
+        private int maxResultWindow = 1_000;
+    }
+
+    @Data
+    public static class Similar {
+
+        /** 每道题预先保留的相似题目个数，也是接口单次可请求的上限。 */
+        private int maxResults = 20;
+    }
+
+    @Data
+    public static class ReadModel {
+
+        /**
+         * 是否维护持久化卡片表 {@code problem_cards}（建表语句见 {@code db/problem_cards.sql}），
+         * 并在目录快照不可用时用它承接默认顺序的列表分页。
+         */
+        private boolean enabled = false;
+
+        /** 维护卡片的列表语言，请求其它语言时仍直接查库。修改后需要全量重建。 */
+        private List<String> languages = List.of("zh-CN", "en");
+
+        /** 同步、重建与对账时单批处理的题目数，一批在一个事务内重写。 */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Export {
+
+        /** 导出时单页读取的题目数，每页一条独立查询，连接只在读取该页期间占用。 */
+        private int pageSize = 200;
+    }
+
+    @Data
+    public static class ResponseCache {
+
+        /** 是否缓存序列化并压缩后的详情响应字节。 */
+        private boolean enabled = true;
+
+        /** 缓存占用的字节上限（原始与压缩字节合计）。 */
+        private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+        /** 条目写入后的存活时间。 */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /** 小于该大小的响应体不做压缩。 */
+        private DataSize minCompressSize = DataSize.ofKilobytes(1);
+    }
+
+    @Data
+    public static class HotDetails {
+
+        /** 是否统计详情访问频率，并把最热门的题目常驻为预序列化响应。 */
+        private boolean enabled = true;
+
+        /** 同时常驻的热门详情个数（按 slug、语言、精简模式区分）。 */
+        private int topK = 20;
+
+        /** 一个衰减周期内至少被访问多少次才视为热门。 */
+        private int minHits = 200;
+
+        /** 频率草图每行的计数器个数。 */
+        private int sketchWidth = 4_096;
+    }
+
+    @Data
+    public static class Lookups {
+
+        /** 是否并发执行列表与详情中互不依赖的查库步骤；关闭时在调用线程内顺序执行。 */
+        private boolean parallel = false;
+
+        /** 并发查询线程池大小，应小于数据源的最大连接数。 */
+        private int poolSize = 8;
+
+        private int queueCapacity = 200;
+
+        /** 单个查询步骤从提交起允许的最长耗时。 */
+        private Duration stageTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class DetailBatching {
+
+        /** 是否把并发到达的详情回源合并为批量 IN 查询。 */
+        private boolean enabled = false;
+
+        /** 第一个待加载的题目到达后，最多再等待多久凑成一批。 */
+        private Duration window = Duration.ofMillis(5);
+
+        /** 单批最多包含的题目数，攒满后立即提交。 */
+        private int maxBatchSize = 50;
+
+        /** 执行批量加载的线程数。 */
+        private int threads = 2;
+    }
+
+    @Data
+    public static class Metadata {
+
+        /** 已解析元数据的缓存条目上限，键为 (题目ID, updated_at)。 */
+        private long cacheSize = 10_000;
+    }
+
+    @Data
+    public static class DetailCache {
+
+        /** 是否缓存题目详情。 */
+        private boolean enabled = true;
+
+        /** 本地缓存的最大条目数，键为 (slug, 语言)。 */
+        private long maximumSize = 2_000;
+
+        /** 本地缓存条目写入后的存活时间。 */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        private final Shared shared = new Shared();
+
+        /** 基于 Redis 的共享二级缓存，默认关闭。 */
+        @Data
+        public static class Shared {
+
+            private boolean enabled = false;
+
+            private String address = "redis://127.0.0.1:6379";
+
+            private String password;
+
+            private int database = 0;
+
+            private String keyPrefix = "ulticode:problem:detail:";
+
+            private Duration ttl = Duration.ofMinutes(30);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.david.open.problem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+import org.reactivestreams.Publisher;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.MimeType;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * 响应式部署（{@code reactive} profile）专用的基础设施。
+ *
+ * <p>类路径上同时存在 Tomcat，这里显式声明 Netty 服务器，避免 WebFlux 跑在 Servlet 容器的适配层上；
+ * CBOR 与 Smile 编解码器与 {@link BinaryEncodingConfig} 对应，保证两种部署的内容协商结果一致。
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveServingConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * 注册 CBOR 与 Smile 编解码器。
+     *
+     * <p>编解码器必须显式声明媒体类型，缺省时会按 JSON 类型注册，把 JSON 响应写成二进制。自定义编解码器排在
+     * 默认编解码器之前，因此先注册一个与默认配置相同的 JSON 编码器，保证 Accept 为通配类型或未声明
+     * Accept 时仍协商为 JSON，只有客户端明确要求时才使用二进制编码。
+     */
+    @Bean
+    public CodecCustomizer binaryEncodingCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper json = builder.build();
+        ObjectMapper cbor = builder.factory(new CBORFactory()).build();
+        ObjectMapper smile = builder.factory(new SmileFactory()).build();
+        MediaType smileType = new MediaType("application", "x-jackson-smile");
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(json));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cbor));
+            configurer
+                    .customCodecs()
+                    .register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smile, smileType));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smile, smileType));
+        };
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} 不支持流式编码，对任何 {@link Publisher} 都直接抛出异常；控制器返回的
+     * {@link Mono} 只含一个值，这里按单值编码，多值的流仍交给父类拒绝。
+     */
+    private static final class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        private SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(
+                Publisher<?> inputStream,
+                DataBufferFactory bufferFactory,
+                ResolvableType elementType,
+                MimeType mimeType,
+                Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> single) {
+                return single.map(
+                                value ->
+                                        encodeValue(
+                                                value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.david.open.problem.config;
+
+import com.david.open.problem.config.PublicProblemProperties.DetailCache.Shared;
+
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** 仅在启用共享详情缓存时创建 Redisson 客户端。 */
+@Configuration
+@ConditionalOnProperty(
+        prefix = "ulticode.problem.detail-cache.shared",
+        name = "enabled",
+        havingValue = "true")
+public class RedissonConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient redissonClient(PublicProblemProperties properties) {
+        Shared shared = properties.getDetailCache().getShared();
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress(shared.getAddress())
+                .setPassword(shared.getPassword())
+                .setDatabase(shared.getDatabase());
+        return Redisson.create(config);
+    }
+}
@@ -1,29 +1,59 @@
 package com.david.open.problem.controller;
 
 import com.david.core.http.ApiResponse;
-import com.david.open.problem.dto.ProblemDetailResponse;
+import com.david.open.problem.cache.EncodedDetail;
+import com.david.open.problem.dto.ProblemBatchResponse;
+import com.david.open.problem.dto.ProblemCardView;
 import com.david.open.problem.dto.ProblemListResponse;
+import com.david.open.problem.dto.ProblemSearchResponse;
+import com.david.open.problem.dto.SimilarProblemsResponse;
+import com.david.open.problem.dto.StarterCodeResponse;
+import com.david.open.problem.service.ProblemExportService;
 import com.david.open.problem.service.ProblemQueryService;
+import com.david.open.problem.support.AcceptEncoding;
+import com.david.open.problem.support.ConditionalRequests;
+import com.david.open.problem.support.DetailVersion;
+import com.david.open.problem.support.ProblemFilter;
+import com.david.open.problem.support.ProblemSort;
+import com.david.open.problem.support.ResourceVersion;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @Validated
 @RestController
 @RequestMapping("/api/public/problems")
 public class ProblemPublicController {
 
     private final ProblemQueryService problemQueryService;
+    private final ProblemExportService problemExportService;
 
-    public ProblemPublicController(ProblemQueryService problemQueryService) {
+    public ProblemPublicController(
+            ProblemQueryService problemQueryService, ProblemExportService problemExportService) {
         this.problemQueryService = problemQueryService;
+        this.problemExportService = problemExportService;
     }
 
     @GetMapping
@@ -33,16 +63,161 @@ public class ProblemPublicController {
                     @Min(value = 1, message = "分页大小不能小于1")
                     @Max(value = 50, message = "分页大小不能超过50")
                     int size,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "exactTotal", defaultValue = "true") boolean exactTotal,
+            @RequestParam(name = "difficulty", required = false) List<String> difficulties,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(name = "company", required = false) List<String> companies,
+            @RequestParam(name = "facets", defaultValue = "false") boolean facets,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "order", required = false) String order,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+        ProblemFilter filter = ProblemFilter.of(difficulties, tags, companies);
+        ProblemSort problemSort = ProblemSort.parse(sort, order);
+        problemQueryService.validateListRequest(cursor, problemSort);
+        // 同一版本可按 Accept 协商为 JSON 或二进制编码，缓存与 ETag 都需按编码区分
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ResourceVersion listVersion =
+                ConditionalRequests.withNegotiatedFormat(
+                        problemQueryService.listVersion(), webRequest);
+        if (ConditionalRequests.notModified(listVersion, webRequest, servletResponse)) {
+            return null;
+        }
+        ProblemListResponse response =
+                problemQueryService.listProblems(
+                        page, size, langCode, cursor, exactTotal, filter, facets, problemSort);
+        return ApiResponse.success(response);
+    }
+
+    @GetMapping("/search")
+    public ApiResponse<ProblemSearchResponse> searchProblems(
+            @RequestParam(name = "q") String query,
+            @RequestParam(defaultValue = "1") @Min(value = 1, message = "页码不能小于1") int page,
+            @RequestParam(defaultValue = "12")
+                    @Min(value = 1, message = "分页大小不能小于1")
+                    @Max(value = 50, message = "分页大小不能超过50")
+                    int size,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "prefix", defaultValue = "false") boolean prefix) {
+        ProblemSearchResponse response =
+                problemQueryService.searchProblems(query, page, size, langCode, prefix);
+        return ApiResponse.success(response);
+    }
+
+    /** 随机返回一道公开题目，可按难度、标签、公司筛选；每次结果不同，禁止缓存。 */
+    @GetMapping("/random")
+    public ApiResponse<ProblemCardView> randomProblem(
+            @RequestParam(name = "difficulty", required = false) List<String> difficulties,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(name = "company", required = false) List<String> companies,
+            @RequestParam(name = "lang", required = false) String langCode,
+            HttpServletResponse servletResponse) {
+        servletResponse.setHeader(
+                HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        ProblemFilter filter = ProblemFilter.of(difficulties, tags, companies);
+        return ApiResponse.success(problemQueryService.randomProblem(filter, langCode));
+    }
+
+    @GetMapping("/batch")
+    public ApiResponse<ProblemBatchResponse> getProblems(
+            @RequestParam(name = "slugs") List<String> slugs,
             @RequestParam(name = "lang", required = false) String langCode) {
-        ProblemListResponse response = problemQueryService.listProblems(page, size, langCode);
+        ProblemBatchResponse response = problemQueryService.getProblemDetails(slugs, langCode);
         return ApiResponse.success(response);
     }
 
+    /**
+     * 以 NDJSON 流式导出全部公开题目，客户端声明支持 gzip 时压缩输出。
+     *
+     * @param view         {@code card}（默认）或 {@code detail}
+     * @param updatedSince 只导出此时间之后更新过的题目，用于增量同步
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProblems(
+            @RequestParam(name = "view", required = false) String view,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "updatedSince", required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime updatedSince,
+            WebRequest webRequest) {
+        ProblemExportService.View exportView = ProblemExportService.View.parse(view);
+        boolean gzip =
+                AcceptEncoding.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        StreamingResponseBody body =
+                out -> {
+                    if (!gzip) {
+                        problemExportService.export(exportView, langCode, updatedSince, out);
+                        return;
+                    }
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+                    problemExportService.export(exportView, langCode, updatedSince, compressed);
+                    compressed.finish();
+                };
+        ResponseEntity.BodyBuilder builder =
+                ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * @param slim 为真时语言配置只含语言ID与名称，编辑器切换语言时再请求对应的起始代码
+     */
     @GetMapping("/{slug}")
-    public ApiResponse<ProblemDetailResponse> getProblem(
+    public ResponseEntity<byte[]> getProblem(
             @PathVariable("slug") String slug,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "slim", defaultValue = "false") boolean slim,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+        DetailVersion version = problemQueryService.resolveDetailVersion(slug, langCode, slim);
+        boolean acceptsGzip =
+                AcceptEncoding.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // 304 同样要声明 Vary，接受 gzip 的客户端可能拿到压缩字节，ETag 带上内容编码与原始字节区分
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ResourceVersion resource =
+                acceptsGzip ? version.resource().withContentCoding("gzip") : version.resource();
+        if (ConditionalRequests.notModified(resource, webRequest, servletResponse)) {
+            return null;
+        }
+        EncodedDetail encoded = problemQueryService.getEncodedProblemDetail(version);
+        ResponseEntity.BodyBuilder builder =
+                ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (encoded.isGzipped(acceptsGzip)) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = encoded.body(acceptsGzip);
+        return builder.contentLength(body.length).body(body);
+    }
+
+    @GetMapping("/{slug}/similar")
+    public ApiResponse<SimilarProblemsResponse> getSimilarProblems(
+            @PathVariable("slug") String slug,
+            @RequestParam(defaultValue = "6")
+                    @Min(value = 1, message = "数量不能小于1")
+                    @Max(value = 20, message = "数量不能超过20")
+                    int limit,
             @RequestParam(name = "lang", required = false) String langCode) {
-        ProblemDetailResponse response = problemQueryService.getProblemDetail(slug, langCode);
+        SimilarProblemsResponse response =
+                problemQueryService.similarProblems(slug, limit, langCode);
         return ApiResponse.success(response);
     }
+
+    @GetMapping("/{slug}/starter-code/{language}")
+    public ApiResponse<StarterCodeResponse> getStarterCode(
+            @PathVariable("slug") String slug,
+            @PathVariable("language") String languageCode,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+        ResourceVersion version = problemQueryService.starterCodeVersion(slug, languageCode);
+        if (ConditionalRequests.notModified(version, webRequest, servletResponse)) {
+            return null;
+        }
+        return ApiResponse.success(problemQueryService.getStarterCode(slug, languageCode));
+    }
 }
@@ -0,0 +1,207 @@
+package com.david.open.problem.controller;
+
+import com.david.core.http.ApiResponse;
+import com.david.open.problem.dto.ProblemBatchResponse;
+import com.david.open.problem.dto.ProblemCardView;
+import com.david.open.problem.dto.ProblemListResponse;
+import com.david.open.problem.dto.ProblemSearchResponse;
+import com.david.open.problem.dto.SimilarProblemsResponse;
+import com.david.open.problem.dto.StarterCodeResponse;
+import com.david.open.problem.service.ProblemExportService;
+import com.david.open.problem.service.ReactiveProblemQueryService;
+import com.david.open.problem.support.AcceptEncoding;
+import com.david.open.problem.support.ConditionalRequests;
+import com.david.open.problem.support.ProblemFilter;
+import com.david.open.problem.support.ProblemSort;
+import com.david.open.problem.support.ResourceVersion;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 响应式部署下的 {@link ProblemPublicController}，路径、参数与响应体保持一致。
+ *
+ * <p>协商缓存命中时返回空的 {@link Mono}，由 {@link ServerWebExchange#checkNotModified} 写出 304。
+ */
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Validated
+@RestController
+@RequestMapping("/api/public/problems")
+public class ReactiveProblemPublicController {
+
+    private final ReactiveProblemQueryService problemQueryService;
+
+    public ReactiveProblemPublicController(ReactiveProblemQueryService problemQueryService) {
+        this.problemQueryService = problemQueryService;
+    }
+
+    @GetMapping
+    public Mono<ApiResponse<ProblemListResponse>> listProblems(
+            @RequestParam(defaultValue = "1") @Min(value = 1, message = "页码不能小于1") int page,
+            @RequestParam(defaultValue = "12")
+                    @Min(value = 1, message = "分页大小不能小于1")
+                    @Max(value = 50, message = "分页大小不能超过50")
+                    int size,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "exactTotal", defaultValue = "true") boolean exactTotal,
+            @RequestParam(name = "difficulty", required = false) List<String> difficulties,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(name = "company", required = false) List<String> companies,
+            @RequestParam(name = "facets", defaultValue = "false") boolean facets,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "order", required = false) String order,
+            ServerWebExchange exchange) {
+        ProblemFilter filter = ProblemFilter.of(difficulties, tags, companies);
+        ProblemSort problemSort = ProblemSort.parse(sort, order);
+        problemQueryService.validateListRequest(cursor, problemSort);
+        // 同一版本可按 Accept 协商为 JSON 或二进制编码，缓存与 ETag 都需按编码区分
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ResourceVersion listVersion =
+                ConditionalRequests.withNegotiatedFormat(
+                        problemQueryService.listVersion(), exchange);
+        if (ConditionalRequests.notModified(listVersion, exchange)) {
+            return Mono.empty();
+        }
+        return problemQueryService
+                .listProblems(
+                        page, size, langCode, cursor, exactTotal, filter, facets, problemSort)
+                .map(ApiResponse::success);
+    }
+
+    @GetMapping("/search")
+    public Mono<ApiResponse<ProblemSearchResponse>> searchProblems(
+            @RequestParam(name = "q") String query,
+            @RequestParam(defaultValue = "1") @Min(value = 1, message = "页码不能小于1") int page,
+            @RequestParam(defaultValue = "12")
+                    @Min(value = 1, message = "分页大小不能小于1")
+                    @Max(value = 50, message = "分页大小不能超过50")
+                    int size,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "prefix", defaultValue = "false") boolean prefix) {
+        return problemQueryService
+                .searchProblems(query, page, size, langCode, prefix)
+                .map(ApiResponse::success);
+    }
+
+    /** 随机返回一道公开题目，可按难度、标签、公司筛选；每次结果不同，禁止缓存。 */
+    @GetMapping("/random")
+    public Mono<ApiResponse<ProblemCardView>> randomProblem(
+            @RequestParam(name = "difficulty", required = false) List<String> difficulties,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(name = "company", required = false) List<String> companies,
+            @RequestParam(name = "lang", required = false) String langCode,
+            ServerWebExchange exchange) {
+        exchange.getResponse()
+                .getHeaders()
+                .setCacheControl(CacheControl.noStore().getHeaderValue());
+        ProblemFilter filter = ProblemFilter.of(difficulties, tags, companies);
+        return problemQueryService.randomProblem(filter, langCode).map(ApiResponse::success);
+    }
+
+    @GetMapping("/batch")
+    public Mono<ApiResponse<ProblemBatchResponse>> getProblems(
+            @RequestParam(name = "slugs") List<String> slugs,
+            @RequestParam(name = "lang", required = false) String langCode) {
+        return problemQueryService.getProblemDetails(slugs, langCode).map(ApiResponse::success);
+    }
+
+    /**
+     * 以 NDJSON 流式导出全部公开题目，按下游消费速度逐行拉取；压缩交给网关或服务器配置。
+     *
+     * @param view         {@code card}（默认）或 {@code detail}
+     * @param updatedSince 只导出此时间之后更新过的题目，用于增量同步
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> exportProblems(
+            @RequestParam(name = "view", required = false) String view,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "updatedSince", required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime updatedSince) {
+        return problemQueryService.export(
+                ProblemExportService.View.parse(view), langCode, updatedSince);
+    }
+
+    /**
+     * @param slim 为真时语言配置只含语言ID与名称，编辑器切换语言时再请求对应的起始代码
+     */
+    @GetMapping("/{slug}")
+    public Mono<ResponseEntity<byte[]>> getProblem(
+            @PathVariable("slug") String slug,
+            @RequestParam(name = "lang", required = false) String langCode,
+            @RequestParam(name = "slim", defaultValue = "false") boolean slim,
+            ServerWebExchange exchange) {
+        boolean acceptsGzip =
+                AcceptEncoding.acceptsGzip(
+                        exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        // 304 同样要声明 Vary，接受 gzip 的客户端可能拿到压缩字节，ETag 带上内容编码与原始字节区分
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        return problemQueryService
+                .resolveDetailVersion(slug, langCode, slim)
+                .filter(
+                        version ->
+                                !ConditionalRequests.notModified(
+                                        acceptsGzip
+                                                ? version.resource().withContentCoding("gzip")
+                                                : version.resource(),
+                                        exchange))
+                .flatMap(problemQueryService::getEncodedProblemDetail)
+                .map(
+                        encoded -> {
+                            ResponseEntity.BodyBuilder builder =
+                                    ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+                            if (encoded.isGzipped(acceptsGzip)) {
+                                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+                            }
+                            byte[] body = encoded.body(acceptsGzip);
+                            return builder.contentLength(body.length).body(body);
+                        });
+    }
+
+    @GetMapping("/{slug}/similar")
+    public Mono<ApiResponse<SimilarProblemsResponse>> getSimilarProblems(
+            @PathVariable("slug") String slug,
+            @RequestParam(defaultValue = "6")
+                    @Min(value = 1, message = "数量不能小于1")
+                    @Max(value = 20, message = "数量不能超过20")
+                    int limit,
+            @RequestParam(name = "lang", required = false) String langCode) {
+        return problemQueryService
+                .similarProblems(slug, limit, langCode)
+                .map(ApiResponse::success);
+    }
+
+    @GetMapping("/{slug}/starter-code/{language}")
+    public Mono<ApiResponse<StarterCodeResponse>> getStarterCode(
+            @PathVariable("slug") String slug,
+            @PathVariable("language") String languageCode,
+            ServerWebExchange exchange) {
+        return problemQueryService
+                .starterCodeVersion(slug, languageCode)
+                .filter(version -> !ConditionalRequests.notModified(version, exchange))
+                .flatMap(version -> problemQueryService.getStarterCode(slug, languageCode))
+                .map(ApiResponse::success);
+    }
+}
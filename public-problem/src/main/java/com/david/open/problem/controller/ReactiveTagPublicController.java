@@ -0,0 +1,48 @@
+package com.david.open.problem.controller;
+
+import com.david.core.exception.BusinessException;
+import com.david.core.http.ApiResponse;
+import com.david.open.problem.catalog.TagCatalog;
+import com.david.open.problem.dto.TagSummary;
+import com.david.open.problem.support.ConditionalRequests;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RestController
+@RequestMapping("/api/public/tags")
+public class ReactiveTagPublicController {
+
+    private final TagCatalog tagCatalog;
+
+    public ReactiveTagPublicController(TagCatalog tagCatalog) {
+        this.tagCatalog = tagCatalog;
+    }
+
+    /** 全部标签及其公开题目数，按题目数降序；计数来自内存目录，不访问数据库。 */
+    @GetMapping
+    public Mono<ApiResponse<List<TagSummary>>> listTags(ServerWebExchange exchange) {
+        if (!tagCatalog.isServing()) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "标签统计暂不可用，请稍后重试");
+        }
+        // 与题目列表相同，可协商为二进制编码，缓存与 ETag 都需按编码区分
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (ConditionalRequests.notModified(
+                ConditionalRequests.withNegotiatedFormat(tagCatalog.version(), exchange),
+                exchange)) {
+            return Mono.empty();
+        }
+        return Mono.just(ApiResponse.success(tagCatalog.tags()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.david.open.problem.controller;
+
+import com.david.core.exception.BusinessException;
+import com.david.core.http.ApiResponse;
+import com.david.open.problem.catalog.TagCatalog;
+import com.david.open.problem.dto.TagSummary;
+import com.david.open.problem.support.ConditionalRequests;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RestController
+@RequestMapping("/api/public/tags")
+public class TagPublicController {
+
+    private final TagCatalog tagCatalog;
+
+    public TagPublicController(TagCatalog tagCatalog) {
+        this.tagCatalog = tagCatalog;
+    }
+
+    /** 全部标签及其公开题目数，按题目数降序；计数来自内存目录，不访问数据库。 */
+    @GetMapping
+    public ApiResponse<List<TagSummary>> listTags(
+            WebRequest webRequest, HttpServletResponse servletResponse) {
+        if (!tagCatalog.isServing()) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "标签统计暂不可用，请稍后重试");
+        }
+        // 与题目列表相同，可协商为二进制编码，缓存与 ETag 都需按编码区分
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (ConditionalRequests.notModified(
+                ConditionalRequests.withNegotiatedFormat(tagCatalog.version(), webRequest),
+                webRequest,
+                servletResponse)) {
+            return null;
+        }
+        return ApiResponse.success(tagCatalog.tags());
+    }
+}
@@ -0,0 +1,29 @@
+package com.david.open.problem.dto;
+
+import java.util.List;
+
+/**
+ * 批量题目详情，{@code items} 与请求中的 slug 顺序一致（重复的 slug 只保留首次出现）。
+ */
+public record ProblemBatchResponse(String lang, List<Item> items) {
+
+    public ProblemBatchResponse {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+
+    /**
+     * @param slug   请求的题目标识
+     * @param found  题目是否存在且已公开；为 {@code false} 时 {@code detail} 为空
+     * @param detail 题目详情
+     */
+    public record Item(String slug, boolean found, ProblemDetailResponse detail) {
+
+        public static Item found(String slug, ProblemDetailResponse detail) {
+            return new Item(slug, true, detail);
+        }
+
+        public static Item notFound(String slug) {
+            return new Item(slug, false, null);
+        }
+    }
+}
@@ -18,7 +18,24 @@ public record ProblemCardView(
         metadata = metadata == null ? ProblemMetadata.empty() : metadata;
     }
 
-    public record DifficultyInfo(Integer id, String code, String label) {}
+    public record DifficultyInfo(Integer id, String code, String label) {
+
+        public static DifficultyInfo of(Integer id, String code) {
+            return new DifficultyInfo(id, code, labelOf(code));
+        }
+
+        private static String labelOf(String code) {
+            if (code == null) {
+                return "未知";
+            }
+            return switch (code.toLowerCase()) {
+                case "easy" -> "简单";
+                case "medium" -> "中等";
+                case "hard" -> "困难";
+                default -> "未知";
+            };
+        }
+    }
 
     public record TagInfo(Long id, String name, String slug) {}
 
@@ -0,0 +1,18 @@
+package com.david.open.problem.dto;
+
+import java.util.List;
+
+/**
+ * 列表筛选的分面计数。每个维度的计数只受其它维度的筛选条件约束，便于前端展示可切换的选项。
+ */
+public record ProblemFacets(
+        List<FacetValue> difficulties, List<FacetValue> tags, List<FacetValue> companies) {
+
+    public ProblemFacets {
+        difficulties = difficulties == null ? List.of() : List.copyOf(difficulties);
+        tags = tags == null ? List.of() : List.copyOf(tags);
+        companies = companies == null ? List.of() : List.copyOf(companies);
+    }
+
+    public record FacetValue(String value, String label, int count, boolean selected) {}
+}
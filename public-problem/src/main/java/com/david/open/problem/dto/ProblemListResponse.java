@@ -3,7 +3,14 @@ package com.david.open.problem.dto;
 import java.util.List;
 
 public record ProblemListResponse(
-        long total, int page, int size, boolean hasMore, List<ProblemCardView> items) {
+        long total,
+        boolean totalExact,
+        int page,
+        int size,
+        boolean hasMore,
+        List<ProblemCardView> items,
+        String nextCursor,
+        ProblemFacets facets) {
 
     public ProblemListResponse {
         items = items == null ? List.of() : List.copyOf(items);
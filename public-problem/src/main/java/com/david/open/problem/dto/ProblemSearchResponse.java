@@ -0,0 +1,17 @@
+package com.david.open.problem.dto;
+
+import java.util.List;
+
+public record ProblemSearchResponse(
+        String query,
+        long total,
+        boolean totalExact,
+        int page,
+        int size,
+        boolean hasMore,
+        List<ProblemCardView> items) {
+
+    public ProblemSearchResponse {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+}
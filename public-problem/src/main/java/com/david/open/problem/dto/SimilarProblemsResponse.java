@@ -0,0 +1,15 @@
+package com.david.open.problem.dto;
+
+import java.util.List;
+
+public record SimilarProblemsResponse(String slug, List<Item> items) {
+
+    public SimilarProblemsResponse {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+
+    /**
+     * @param score 标签与公司集合的 Jaccard 相似度，取值 (0, 1]
+     */
+    public record Item(double score, ProblemCardView problem) {}
+}
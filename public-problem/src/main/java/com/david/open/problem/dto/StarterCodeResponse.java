@@ -0,0 +1,13 @@
+package com.david.open.problem.dto;
+
+import java.time.LocalDateTime;
+
+public record StarterCodeResponse(
+        Long problemId,
+        String slug,
+        Integer languageId,
+        String languageCode,
+        String languageName,
+        String functionName,
+        String starterCode,
+        LocalDateTime updatedAt) {}
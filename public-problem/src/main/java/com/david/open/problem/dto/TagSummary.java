@@ -0,0 +1,4 @@
+package com.david.open.problem.dto;
+
+/** 标签及其下公开题目的数量。 */
+public record TagSummary(Long id, String name, String slug, int problemCount) {}
@@ -0,0 +1,152 @@
+package com.david.open.problem.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 题目卡片读模型 {@code problem_cards}，表结构见 {@code db/problem_cards.sql}。
+ *
+ * <p>列表分页只命中 {@code (lang_code, problem_updated_at, problem_id)} 索引，不再关联题面与标签表。
+ */
+@Mapper
+public interface ProblemCardMapper {
+
+    @Select("SELECT MAX(problem_updated_at) FROM problem_cards")
+    LocalDateTime selectLatestProblemUpdatedAt();
+
+    @Select("SELECT MAX(statement_updated_at) FROM problem_cards")
+    LocalDateTime selectLatestStatementUpdatedAt();
+
+    @Select("SELECT COUNT(*) FROM problem_cards WHERE lang_code = #{lang}")
+    long countByLang(@Param("lang") String lang);
+
+    @Select("SELECT DISTINCT problem_id FROM problem_cards")
+    List<Long> selectProblemIds();
+
+    /**
+     * 按默认顺序（更新时间、ID 倒序）读取一页卡片。{@code afterUpdatedAt} 非空时按游标定位，
+     * 此时 {@code offset} 应为 0。
+     */
+    @Select(
+            """
+            <script>
+            SELECT
+                problem_id           AS problemId,
+                lang_code            AS langCode,
+                slug                 AS slug,
+                title                AS title,
+                difficulty_id        AS difficultyId,
+                difficulty_code      AS difficultyCode,
+                tags_json            AS tagsJson,
+                time_limit_ms        AS timeLimitMs,
+                memory_limit_kb      AS memoryLimitKb,
+                companies_json       AS companiesJson,
+                frequency            AS frequency,
+                paid_only            AS paidOnly,
+                frontend_id          AS frontendId,
+                leetcode_style       AS leetcodeStyle,
+                problem_updated_at   AS problemUpdatedAt,
+                statement_updated_at AS statementUpdatedAt
+            FROM problem_cards
+            WHERE lang_code = #{lang}
+            <if test="afterUpdatedAt != null">
+              AND (problem_updated_at &lt; #{afterUpdatedAt}
+                   OR (problem_updated_at = #{afterUpdatedAt} AND problem_id &lt; #{afterId}))
+            </if>
+            ORDER BY problem_updated_at DESC, problem_id DESC
+            LIMIT #{limit} OFFSET #{offset}
+            </script>
+            """)
+    List<CardRow> selectPage(
+            @Param("lang") String lang,
+            @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    @Select(
+            """
+            <script>
+            SELECT
+                problem_id           AS problemId,
+                lang_code            AS langCode,
+                slug                 AS slug,
+                title                AS title,
+                difficulty_id        AS difficultyId,
+                difficulty_code      AS difficultyCode,
+                tags_json            AS tagsJson,
+                time_limit_ms        AS timeLimitMs,
+                memory_limit_kb      AS memoryLimitKb,
+                companies_json       AS companiesJson,
+                frequency            AS frequency,
+                paid_only            AS paidOnly,
+                frontend_id          AS frontendId,
+                leetcode_style       AS leetcodeStyle,
+                problem_updated_at   AS problemUpdatedAt,
+                statement_updated_at AS statementUpdatedAt
+            FROM problem_cards
+            WHERE problem_id IN
+            <foreach item="id" collection="problemIds" open="(" separator="," close=")">
+                #{id}
+            </foreach>
+            </script>
+            """)
+    List<CardRow> selectByProblemIds(@Param("problemIds") Collection<Long> problemIds);
+
+    @Insert(
+            """
+            <script>
+            INSERT INTO problem_cards (
+                problem_id, lang_code, slug, title, difficulty_id, difficulty_code, tags_json,
+                time_limit_ms, memory_limit_kb, companies_json, frequency, paid_only,
+                frontend_id, leetcode_style, problem_updated_at, statement_updated_at, synced_at)
+            VALUES
+            <foreach item="row" collection="rows" separator=",">
+                (#{row.problemId}, #{row.langCode}, #{row.slug}, #{row.title},
+                 #{row.difficultyId}, #{row.difficultyCode}, #{row.tagsJson},
+                 #{row.timeLimitMs}, #{row.memoryLimitKb}, #{row.companiesJson},
+                 #{row.frequency}, #{row.paidOnly}, #{row.frontendId}, #{row.leetcodeStyle},
+                 #{row.problemUpdatedAt}, #{row.statementUpdatedAt}, NOW(6))
+            </foreach>
+            </script>
+            """)
+    int insertCards(@Param("rows") List<CardRow> rows);
+
+    @Delete(
+            """
+            <script>
+            DELETE FROM problem_cards
+            WHERE problem_id IN
+            <foreach item="id" collection="problemIds" open="(" separator="," close=")">
+                #{id}
+            </foreach>
+            </script>
+            """)
+    int deleteByProblemIds(@Param("problemIds") Collection<Long> problemIds);
+
+    /** 一道题在一种列表语言下的卡片，{@code synced_at} 只用于排查，不参与对账比较。 */
+    record CardRow(
+            Long problemId,
+            String langCode,
+            String slug,
+            String title,
+            Integer difficultyId,
+            String difficultyCode,
+            String tagsJson,
+            Integer timeLimitMs,
+            Integer memoryLimitKb,
+            String companiesJson,
+            Double frequency,
+            Boolean paidOnly,
+            Integer frontendId,
+            Boolean leetcodeStyle,
+            LocalDateTime problemUpdatedAt,
+            LocalDateTime statementUpdatedAt) {}
+}
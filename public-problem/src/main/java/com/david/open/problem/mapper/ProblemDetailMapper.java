@@ -0,0 +1,186 @@
+package com.david.open.problem.mapper;
+
+import com.david.open.problem.support.PublishedProblems;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 题目详情专用查询：题目、首选语言描述与难度一条语句取回，标签与语言配置合并为第二条语句，
+ * 一次详情加载固定两次往返。
+ */
+@Mapper
+public interface ProblemDetailMapper {
+
+    @Select(
+            """
+            <script>
+            SELECT
+                p.id                AS id,
+                p.slug              AS slug,
+                p.difficulty_id     AS difficultyId,
+                d.code              AS difficultyCode,
+                p.time_limit_ms     AS timeLimitMs,
+                p.memory_limit_kb   AS memoryLimitKb,
+                p.meta_json         AS metaJson,
+                p.updated_at        AS updatedAt,
+                s.lang_code         AS langCode,
+                s.title             AS title,
+                s.description_md    AS descriptionMd,
+                s.constraints_md    AS constraintsMd,
+                s.examples_md       AS examplesMd
+            FROM problems p
+            LEFT JOIN difficulties d ON d.id = p.difficulty_id
+            LEFT JOIN problem_statements s ON s.id = (
+                SELECT ps.id
+                FROM problem_statements ps
+                WHERE ps.problem_id = p.id
+                  AND ps.lang_code IN
+                <foreach item="lang" collection="langs" open="(" separator="," close=")">
+                    #{lang}
+                </foreach>
+                ORDER BY CASE ps.lang_code
+                <foreach item="lang" index="rank" collection="langs">
+                    WHEN #{lang} THEN ${rank}
+                </foreach>
+                END, ps.id
+                LIMIT 1)
+            WHERE p.slug = #{slug}
+              AND p.is_public = 1
+              AND p.lifecycle_status = #{lifecycleStatus}
+              AND p.review_status = #{reviewStatus}
+            LIMIT 1
+            </script>
+            """)
+    DetailHeadRow selectDetailHead(
+            @Param("slug") String slug,
+            @Param("langs") List<String> langs,
+            @Param("lifecycleStatus") String lifecycleStatus,
+            @Param("reviewStatus") String reviewStatus);
+
+    /** {@code langs} 按优先级排列，取第一个存在的描述。 */
+    default DetailHeadRow selectPublishedDetailHead(String slug, List<String> langs) {
+        return selectDetailHead(
+                slug, langs, PublishedProblems.LIFECYCLE_PUBLISHED, PublishedProblems.REVIEW_APPROVED);
+    }
+
+    /** {@code withStarterCode} 为假时不读取函数名与起始代码列，供精简详情使用。 */
+    @Select(
+            """
+            <script>
+            SELECT
+                'tag'               AS kind,
+                t.id                AS refId,
+                t.name              AS name,
+                t.slug              AS code,
+                NULL                AS functionName,
+                NULL                AS starterCode
+            FROM problem_tags pt
+            JOIN tags t ON t.id = pt.tag_id
+            WHERE pt.problem_id = #{problemId}
+            UNION ALL
+            SELECT
+                'language'          AS kind,
+                plc.language_id     AS refId,
+                l.display_name      AS name,
+                l.code              AS code,
+                <choose>
+                    <when test="withStarterCode">
+                plc.function_name   AS functionName,
+                plc.starter_code    AS starterCode
+                    </when>
+                    <otherwise>
+                NULL                AS functionName,
+                NULL                AS starterCode
+                    </otherwise>
+                </choose>
+            FROM problem_language_configs plc
+            LEFT JOIN languages l ON l.id = plc.language_id
+            WHERE plc.problem_id = #{problemId}
+            </script>
+            """)
+    @ResultType(DetailChildRow.class)
+    void selectDetailChildren(
+            @Param("problemId") Long problemId,
+            @Param("withStarterCode") boolean withStarterCode,
+            ResultHandler<DetailChildRow> handler);
+
+    @Select(
+            """
+            SELECT
+                p.id                AS problemId,
+                p.slug              AS slug,
+                p.updated_at        AS updatedAt,
+                l.id                AS languageId,
+                l.code              AS languageCode,
+                l.display_name      AS languageName,
+                plc.function_name   AS functionName,
+                plc.starter_code    AS starterCode
+            FROM problems p
+            JOIN problem_language_configs plc ON plc.problem_id = p.id
+            JOIN languages l ON l.id = plc.language_id
+            WHERE p.slug = #{slug}
+              AND l.code = #{languageCode}
+              AND p.is_public = 1
+              AND p.lifecycle_status = #{lifecycleStatus}
+              AND p.review_status = #{reviewStatus}
+            LIMIT 1
+            """)
+    StarterCodeRow selectStarterCode(
+            @Param("slug") String slug,
+            @Param("languageCode") String languageCode,
+            @Param("lifecycleStatus") String lifecycleStatus,
+            @Param("reviewStatus") String reviewStatus);
+
+    /** 单个（题目, 编程语言）的函数名与起始代码；题目未公开或未配置该语言时返回 {@code null}。 */
+    default StarterCodeRow selectPublishedStarterCode(String slug, String languageCode) {
+        return selectStarterCode(
+                slug,
+                languageCode,
+                PublishedProblems.LIFECYCLE_PUBLISHED,
+                PublishedProblems.REVIEW_APPROVED);
+    }
+
+    record DetailHeadRow(
+            Long id,
+            String slug,
+            Integer difficultyId,
+            String difficultyCode,
+            Integer timeLimitMs,
+            Integer memoryLimitKb,
+            String metaJson,
+            LocalDateTime updatedAt,
+            String langCode,
+            String title,
+            String descriptionMd,
+            String constraintsMd,
+            String examplesMd) {}
+
+    record DetailChildRow(
+            String kind,
+            Long refId,
+            String name,
+            String code,
+            String functionName,
+            String starterCode) {
+
+        public static final String TAG = "tag";
+        public static final String LANGUAGE = "language";
+    }
+
+    record StarterCodeRow(
+            Long problemId,
+            String slug,
+            LocalDateTime updatedAt,
+            Integer languageId,
+            String languageCode,
+            String languageName,
+            String functionName,
+            String starterCode) {}
+}
@@ -0,0 +1,133 @@
+package com.david.open.problem.mapper;
+
+import com.david.open.problem.support.PublishedProblems;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 公开题目全量导出。按题目ID做键集分页，一道题一行，标签与语言配置以聚合列内联；
+ * 每页是一条独立的短查询，导出期间不长期占用连接。
+ */
+@Mapper
+public interface ProblemExportMapper {
+
+    @Select(
+            """
+            <script>
+            SELECT
+                p.id                AS id,
+                p.slug              AS slug,
+                p.difficulty_id     AS difficultyId,
+                p.time_limit_ms     AS timeLimitMs,
+                p.memory_limit_kb   AS memoryLimitKb,
+                p.meta_json         AS metaJson,
+                p.updated_at        AS updatedAt,
+                s.title             AS title,
+                <choose>
+                    <when test="detail">
+                s.description_md    AS descriptionMd,
+                s.constraints_md    AS constraintsMd,
+                s.examples_md       AS examplesMd,
+                    </when>
+                    <otherwise>
+                NULL                AS descriptionMd,
+                NULL                AS constraintsMd,
+                NULL                AS examplesMd,
+                    </otherwise>
+                </choose>
+                (SELECT GROUP_CONCAT(pt.tag_id)
+                 FROM problem_tags pt
+                 WHERE pt.problem_id = p.id) AS tagIds,
+                <choose>
+                    <when test="detail">
+                (SELECT JSON_ARRAYAGG(JSON_OBJECT(
+                        'languageId', plc.language_id,
+                        'functionName', plc.function_name,
+                        'starterCode', plc.starter_code))
+                 FROM problem_language_configs plc
+                 WHERE plc.problem_id = p.id) AS languagesJson
+                    </when>
+                    <otherwise>
+                NULL                AS languagesJson
+                    </otherwise>
+                </choose>
+            FROM problems p
+            LEFT JOIN problem_statements s ON s.id = (
+                SELECT ps.id
+                FROM problem_statements ps
+                WHERE ps.problem_id = p.id
+                  AND ps.lang_code IN
+                <foreach item="lang" collection="langs" open="(" separator="," close=")">
+                    #{lang}
+                </foreach>
+                ORDER BY CASE ps.lang_code
+                <foreach item="lang" index="rank" collection="langs">
+                    WHEN #{lang} THEN ${rank}
+                </foreach>
+                END, ps.id
+                LIMIT 1)
+            WHERE p.is_public = 1
+              AND p.lifecycle_status = #{lifecycleStatus}
+              AND p.review_status = #{reviewStatus}
+            <if test="updatedSince != null">
+              AND p.updated_at &gt;= #{updatedSince}
+            </if>
+            <if test="afterId != null">
+              AND p.id &gt; #{afterId}
+            </if>
+            ORDER BY p.id ASC
+            LIMIT #{limit}
+            </script>
+            """)
+    List<ExportRow> selectProblemPage(
+            @Param("langs") List<String> langs,
+            @Param("detail") boolean detail,
+            @Param("updatedSince") LocalDateTime updatedSince,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit,
+            @Param("lifecycleStatus") String lifecycleStatus,
+            @Param("reviewStatus") String reviewStatus);
+
+    /**
+     * 按题目ID升序读取 {@code afterId} 之后的一页公开题目。{@code detail} 为假时不读取描述正文与语言配置。
+     *
+     * @param langs        标题与描述的语言优先级
+     * @param updatedSince 只导出此时间之后更新过的题目，为空时导出全部
+     * @param afterId      上一页最后一道题的ID，首页为空
+     */
+    default List<ExportRow> selectPublishedPage(
+            List<String> langs,
+            boolean detail,
+            LocalDateTime updatedSince,
+            Long afterId,
+            int limit) {
+        return selectProblemPage(
+                langs,
+                detail,
+                updatedSince,
+                afterId,
+                limit,
+                PublishedProblems.LIFECYCLE_PUBLISHED,
+                PublishedProblems.REVIEW_APPROVED);
+    }
+
+    record ExportRow(
+            Long id,
+            String slug,
+            Integer difficultyId,
+            Integer timeLimitMs,
+            Integer memoryLimitKb,
+            String metaJson,
+            LocalDateTime updatedAt,
+            String title,
+            String descriptionMd,
+            String constraintsMd,
+            String examplesMd,
+            String tagIds,
+            String languagesJson) {}
+}
@@ -1,9 +1,48 @@
 package com.david.open.problem.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.david.open.problem.entity.Problem;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
-public interface ProblemMapper extends BaseMapper<Problem> {}
+public interface ProblemMapper extends BaseMapper<Problem> {
+
+    @Select("SELECT MAX(updated_at) FROM problems")
+    LocalDateTime selectLatestUpdatedAt();
+
+    /**
+     * 只读取题目卡片需要的列。筛选、排序与分页条件由 {@code wrapper} 给出，
+     * 不会读取题目表上的其它大字段。
+     */
+    @Select(
+            """
+            SELECT
+                id                AS id,
+                slug              AS slug,
+                difficulty_id     AS difficultyId,
+                time_limit_ms     AS timeLimitMs,
+                memory_limit_kb   AS memoryLimitKb,
+                meta_json         AS metaJson,
+                updated_at        AS updatedAt
+            FROM problems
+            ${ew.customSqlSegment}
+            """)
+    List<ProblemCardRow> selectCardRows(@Param(Constants.WRAPPER) Wrapper<Problem> wrapper);
+
+    record ProblemCardRow(
+            Long id,
+            String slug,
+            Integer difficultyId,
+            Integer timeLimitMs,
+            Integer memoryLimitKb,
+            String metaJson,
+            LocalDateTime updatedAt) {}
+}
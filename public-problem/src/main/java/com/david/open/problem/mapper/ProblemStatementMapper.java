@@ -4,6 +4,40 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.david.open.problem.entity.ProblemStatement;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
-public interface ProblemStatementMapper extends BaseMapper<ProblemStatement> {}
+public interface ProblemStatementMapper extends BaseMapper<ProblemStatement> {
+
+    @Select("SELECT MAX(updated_at) FROM problem_statements")
+    LocalDateTime selectLatestUpdatedAt();
+
+    /** 列表只展示标题，这里不读取描述、约束与样例等正文列。 */
+    @Select(
+            """
+            <script>
+            SELECT
+                ps.problem_id    AS problemId,
+                ps.lang_code     AS langCode,
+                ps.title         AS title
+            FROM problem_statements ps
+            WHERE ps.problem_id IN
+            <foreach item="id" collection="problemIds" open="(" separator="," close=")">
+                #{id}
+            </foreach>
+              AND ps.lang_code IN
+            <foreach item="lang" collection="langs" open="(" separator="," close=")">
+                #{lang}
+            </foreach>
+            </script>
+            """)
+    List<StatementTitleRow> selectTitles(
+            @Param("problemIds") Collection<Long> problemIds, @Param("langs") List<String> langs);
+
+    record StatementTitleRow(Long problemId, String langCode, String title) {}
+}
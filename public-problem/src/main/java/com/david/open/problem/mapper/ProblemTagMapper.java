@@ -18,19 +18,41 @@ public interface ProblemTagMapper extends BaseMapper<ProblemTag> {
             <script>
             SELECT
                 pt.problem_id    AS problemId,
-                t.id             AS tagId,
-                t.name           AS name,
-                t.slug           AS slug
+                pt.tag_id        AS tagId
             FROM problem_tags pt
-            INNER JOIN tags t ON t.id = pt.tag_id
             WHERE pt.problem_id IN
             <foreach item="id" collection="problemIds" open="(" separator="," close=")">
                 #{id}
             </foreach>
-            ORDER BY pt.problem_id ASC, t.name ASC
+            ORDER BY pt.problem_id ASC
             </script>
             """)
-    List<TagRelationRow> selectTagsForProblems(@Param("problemIds") Collection<Long> problemIds);
+    List<TagRelationRow> selectTagIdsForProblems(@Param("problemIds") Collection<Long> problemIds);
 
-    record TagRelationRow(Long problemId, Long tagId, String name, String slug) {}
+    @Select(
+            """
+            <script>
+            SELECT DISTINCT pt.problem_id
+            FROM problem_tags pt
+            WHERE pt.tag_id IN
+            <foreach item="id" collection="tagIds" open="(" separator="," close=")">
+                #{id}
+            </foreach>
+            </script>
+            """)
+    List<Long> selectProblemIdsByTags(@Param("tagIds") Collection<Long> tagIds);
+
+    /** {@code problem_tags} 没有时间戳，对账前先比较行数与按行 CRC 异或得到的摘要，未变化时跳过全表读取。 */
+    @Select(
+            """
+            SELECT
+                COUNT(*)                                                      AS rowCount,
+                COALESCE(BIT_XOR(CRC32(CONCAT(pt.problem_id, ':', pt.tag_id))), 0) AS checksum
+            FROM problem_tags pt
+            """)
+    RelationChecksum selectChecksum();
+
+    record TagRelationRow(Long problemId, Long tagId) {}
+
+    record RelationChecksum(long rowCount, long checksum) {}
 }
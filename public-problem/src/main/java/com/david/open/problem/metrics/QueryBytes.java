@@ -0,0 +1,80 @@
+package com.david.open.problem.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 当前请求从数据库结果集中读取的字节数（按文本与二进制列的 UTF-8 长度估算）。
+ *
+ * <p>计数器绑定在请求线程上；查询步骤被分派到其它线程执行时，用 {@link #propagate(Supplier)}
+ * 把同一个计数器带过去，因此并发查库的字节数也会累加到发起请求的那次计数中。
+ */
+public final class QueryBytes {
+
+    private static final ThreadLocal<QueryBytes> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private QueryBytes() {}
+
+    /** 为当前线程开启新的计数，返回的计数器在请求结束时读取。 */
+    public static QueryBytes open() {
+        QueryBytes counter = new QueryBytes();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /** 当前线程没有开启计数时忽略，例如定时刷新任务中的查询。 */
+    public static void add(long count) {
+        QueryBytes counter = CURRENT.get();
+        if (counter != null) {
+            counter.bytes.add(count);
+        }
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> action) {
+        QueryBytes counter = CURRENT.get();
+        if (counter == null) {
+            return action;
+        }
+        return () -> {
+            QueryBytes previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                return action.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public long total() {
+        return bytes.sum();
+    }
+
+    static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                length++;
+            } else if (ch < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(ch)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,57 @@
+package com.david.open.problem.metrics;
+
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.proxy.jdbc.ResultSetProxy;
+
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * Druid 结果集过滤器，把读取到的文本与二进制列长度计入 {@link QueryBytes}。
+ *
+ * <p>数值与时间列长度固定且很小，不计入；列表与详情的读取量主要由标题、正文、元数据 JSON 等文本列决定。
+ * 作为 Bean 注册后由 Druid 的自动配置挂到数据源上。
+ */
+@Component
+public class QueryBytesDruidFilter extends FilterEventAdapter {
+
+    @Override
+    public String resultSet_getString(FilterChain chain, ResultSetProxy result, int columnIndex)
+            throws SQLException {
+        return count(super.resultSet_getString(chain, result, columnIndex));
+    }
+
+    @Override
+    public String resultSet_getString(FilterChain chain, ResultSetProxy result, String columnLabel)
+            throws SQLException {
+        return count(super.resultSet_getString(chain, result, columnLabel));
+    }
+
+    @Override
+    public byte[] resultSet_getBytes(FilterChain chain, ResultSetProxy result, int columnIndex)
+            throws SQLException {
+        return count(super.resultSet_getBytes(chain, result, columnIndex));
+    }
+
+    @Override
+    public byte[] resultSet_getBytes(FilterChain chain, ResultSetProxy result, String columnLabel)
+            throws SQLException {
+        return count(super.resultSet_getBytes(chain, result, columnLabel));
+    }
+
+    private static String count(String value) {
+        if (value != null) {
+            QueryBytes.add(QueryBytes.utf8Length(value));
+        }
+        return value;
+    }
+
+    private static byte[] count(byte[] value) {
+        if (value != null) {
+            QueryBytes.add(value.length);
+        }
+        return value;
+    }
+}
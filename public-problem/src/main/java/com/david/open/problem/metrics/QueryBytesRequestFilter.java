@@ -0,0 +1,70 @@
+package com.david.open.problem.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 为每个请求开启 {@link QueryBytes} 计数，结束时按路由模板记录到 {@code problem.db.bytes.read}。
+ *
+ * <p>异步请求（如全量导出）的查库发生在请求线程之外，不在此统计。
+ */
+@Slf4j
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Component
+public class QueryBytesRequestFilter extends OncePerRequestFilter {
+
+    private static final String METRIC_NAME = "problem.db.bytes.read";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryBytesRequestFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryBytes counter = QueryBytes.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryBytes.close();
+            if (!request.isAsyncStarted()) {
+                record(request, counter.total());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long bytes) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("bytes")
+                .description("单次请求从数据库结果集读取的文本与二进制列字节数")
+                .tag("uri", pattern.toString())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(bytes);
+        if (bytes > 0) {
+            log.debug("{} {} 读取数据库 {} 字节", request.getMethod(), pattern, bytes);
+        }
+    }
+}
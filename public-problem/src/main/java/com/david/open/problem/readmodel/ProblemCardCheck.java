@@ -0,0 +1,31 @@
+package com.david.open.problem.readmodel;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 一次读模型对账的结果，比较基准是按源表现算的卡片。
+ *
+ * @param checkedAt       对账开始时间
+ * @param took            对账耗时
+ * @param checkedProblems 参与比较的已公开题目数
+ * @param missingRows     应有但缺失的卡片行
+ * @param staleRows       内容与源表不一致的卡片行
+ * @param foreignRows     语言不在配置范围内的卡片行
+ * @param orphanProblems  已下线或已删除、却仍留有卡片的题目数
+ * @param repaired        是否已就地修复上述差异
+ */
+public record ProblemCardCheck(
+        Instant checkedAt,
+        Duration took,
+        int checkedProblems,
+        int missingRows,
+        int staleRows,
+        int foreignRows,
+        int orphanProblems,
+        boolean repaired) {
+
+    public boolean consistent() {
+        return missingRows == 0 && staleRows == 0 && foreignRows == 0 && orphanProblems == 0;
+    }
+}
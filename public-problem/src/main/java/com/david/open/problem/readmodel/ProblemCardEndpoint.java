@@ -0,0 +1,46 @@
+package com.david.open.problem.readmodel;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通过 JMX 的 {@code problemcards} 端点查看读模型状态，或以 {@code action} 参数执行运维操作：
+ * {@code sync} 立即增量同步，{@code check} 只对账不修改，{@code repair} 对账并修复差异，
+ * {@code rebuild} 从源表全量重建。除 {@code check} 外的操作只能在持有写锁的实例上执行。
+ *
+ * <p>端点会改写多实例共享的卡片表，配置中只经 JMX 暴露，不加入 Web 暴露列表。
+ */
+@Component
+@Endpoint(id = "problemcards")
+public class ProblemCardEndpoint {
+
+    private final ProblemCardReadModel readModel;
+
+    public ProblemCardEndpoint(ProblemCardReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    @ReadOperation
+    public ProblemCardStats stats() {
+        return readModel.stats();
+    }
+
+    @WriteOperation
+    public Object run(String action) {
+        return switch (action) {
+            case "sync" -> {
+                readModel.sync();
+                yield readModel.stats();
+            }
+            case "check" -> readModel.check(false);
+            case "repair" -> readModel.check(true);
+            case "rebuild" -> readModel.rebuild();
+            default ->
+                    throw new InvalidEndpointRequestException(
+                            "不支持的操作: " + action, "Unsupported action");
+        };
+    }
+}
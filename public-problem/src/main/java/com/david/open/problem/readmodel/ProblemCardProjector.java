@@ -0,0 +1,214 @@
+package com.david.open.problem.readmodel;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.open.problem.catalog.ReferenceDataRegistry;
+import com.david.open.problem.dto.ProblemCardView;
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.dto.ProblemCardView.ProblemStats;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.entity.Problem;
+import com.david.open.problem.entity.ProblemStatement;
+import com.david.open.problem.mapper.ProblemCardMapper.CardRow;
+import com.david.open.problem.mapper.ProblemMapper;
+import com.david.open.problem.mapper.ProblemStatementMapper;
+import com.david.open.problem.mapper.ProblemTagMapper;
+import com.david.open.problem.mapper.ProblemTagMapper.TagRelationRow;
+import com.david.open.problem.service.ProblemMetadataParser;
+import com.david.open.problem.support.ProblemViews;
+import com.david.open.problem.support.PublishedProblems;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在题目卡片的源数据与 {@code problem_cards} 行之间转换。
+ *
+ * <p>标题回退顺序、标签排序与元数据解析与逐次查库的列表路径保持同一口径，读模型只是把这些计算提前到写入时；
+ * 读取时除两个小 JSON 数组外不再做任何关联或解析。
+ */
+@Slf4j
+@Component
+public class ProblemCardProjector {
+
+    private static final TypeReference<List<TagInfo>> TAG_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final ProblemMapper problemMapper;
+    private final ProblemStatementMapper problemStatementMapper;
+    private final ProblemTagMapper problemTagMapper;
+    private final ReferenceDataRegistry referenceData;
+    private final ProblemMetadataParser metadataParser;
+    private final ObjectMapper objectMapper;
+
+    public ProblemCardProjector(
+            ProblemMapper problemMapper,
+            ProblemStatementMapper problemStatementMapper,
+            ProblemTagMapper problemTagMapper,
+            ReferenceDataRegistry referenceData,
+            ProblemMetadataParser metadataParser,
+            ObjectMapper objectMapper) {
+        this.problemMapper = problemMapper;
+        this.problemStatementMapper = problemStatementMapper;
+        this.problemTagMapper = problemTagMapper;
+        this.referenceData = referenceData;
+        this.metadataParser = metadataParser;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 按源表当前状态计算 {@code problemIds} 应有的卡片，每道已公开题目在每种列表语言下一行；
+     * 未公开或已删除的题目不产生任何行。
+     */
+    public List<CardRow> project(Collection<Long> problemIds, List<String> languages) {
+        if (problemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Problem> problems =
+                problemMapper
+                        .selectList(
+                                Wrappers.lambdaQuery(Problem.class)
+                                        .select(
+                                                Problem::getId,
+                                                Problem::getSlug,
+                                                Problem::getDifficultyId,
+                                                Problem::getTimeLimitMs,
+                                                Problem::getMemoryLimitKb,
+                                                Problem::getIsPublic,
+                                                Problem::getLifecycleStatus,
+                                                Problem::getReviewStatus,
+                                                Problem::getMetaJson,
+                                                Problem::getUpdatedAt)
+                                        .in(Problem::getId, problemIds))
+                        .stream()
+                        .filter(PublishedProblems::isPublished)
+                        .toList();
+        if (problems.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = problems.stream().map(Problem::getId).toList();
+
+        Map<Long, Map<String, String>> titles = new HashMap<>();
+        Map<Long, LocalDateTime> statementUpdatedAt = new HashMap<>();
+        for (ProblemStatement statement :
+                problemStatementMapper.selectList(
+                        Wrappers.lambdaQuery(ProblemStatement.class)
+                                .select(
+                                        ProblemStatement::getProblemId,
+                                        ProblemStatement::getLangCode,
+                                        ProblemStatement::getTitle,
+                                        ProblemStatement::getUpdatedAt)
+                                .in(ProblemStatement::getProblemId, ids))) {
+            titles.computeIfAbsent(statement.getProblemId(), ignored -> new HashMap<>())
+                    .put(statement.getLangCode(), statement.getTitle());
+            if (statement.getUpdatedAt() != null) {
+                statementUpdatedAt.merge(
+                        statement.getProblemId(),
+                        statement.getUpdatedAt(),
+                        (left, right) -> left.isAfter(right) ? left : right);
+            }
+        }
+        Map<Long, List<TagInfo>> tags = new HashMap<>();
+        for (TagRelationRow relation : problemTagMapper.selectTagIdsForProblems(ids)) {
+            TagInfo tag = referenceData.tag(relation.tagId());
+            if (tag != null) {
+                tags.computeIfAbsent(relation.problemId(), ignored -> new ArrayList<>()).add(tag);
+            }
+        }
+
+        List<CardRow> rows = new ArrayList<>(problems.size() * languages.size());
+        for (Problem problem : problems) {
+            Long id = problem.getId();
+            ProblemMetadata metadata =
+                    metadataParser.parse(id, problem.getUpdatedAt(), problem.getMetaJson());
+            DifficultyInfo difficulty = referenceData.difficulty(problem.getDifficultyId());
+            List<TagInfo> problemTags = new ArrayList<>(tags.getOrDefault(id, List.of()));
+            problemTags.sort(ProblemViews.TAG_ORDER);
+            String tagsJson = write(problemTags);
+            String companiesJson = write(metadata.companies());
+            Map<String, String> problemTitles = titles.getOrDefault(id, Map.of());
+            for (String lang : languages) {
+                rows.add(
+                        new CardRow(
+                                id,
+                                lang,
+                                problem.getSlug(),
+                                resolveTitle(problemTitles, lang),
+                                problem.getDifficultyId(),
+                                difficulty != null ? difficulty.code() : null,
+                                tagsJson,
+                                problem.getTimeLimitMs(),
+                                problem.getMemoryLimitKb(),
+                                companiesJson,
+                                metadata.frequency(),
+                                metadata.paidOnly(),
+                                metadata.frontendId(),
+                                metadata.leetcodeStyle(),
+                                problem.getUpdatedAt(),
+                                statementUpdatedAt.get(id)));
+            }
+        }
+        return rows;
+    }
+
+    public ProblemCardView toView(CardRow row) {
+        return new ProblemCardView(
+                row.problemId(),
+                row.slug(),
+                row.title() != null ? row.title() : row.slug(),
+                row.difficultyCode() != null
+                        ? DifficultyInfo.of(row.difficultyId(), row.difficultyCode())
+                        : null,
+                read(row, row.tagsJson(), TAG_LIST),
+                new ProblemStats(row.timeLimitMs(), row.memoryLimitKb()),
+                new ProblemMetadata(
+                        read(row, row.companiesJson(), STRING_LIST),
+                        row.frequency(),
+                        row.paidOnly(),
+                        row.frontendId(),
+                        row.leetcodeStyle()),
+                row.problemUpdatedAt());
+    }
+
+    private static String resolveTitle(Map<String, String> titles, String lang) {
+        for (String candidate : ProblemViews.languagePreference(lang)) {
+            String title = titles.get(candidate);
+            if (title != null) {
+                return title;
+            }
+        }
+        return null;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> List<T> read(CardRow row, String json, TypeReference<List<T>> type) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            log.warn("解析题目 {} 的卡片列失败: {}", row.problemId(), e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.david.open.problem.readmodel;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.open.problem.catalog.ProblemCatalogRefreshedEvent;
+import com.david.open.problem.catalog.ReferenceData;
+import com.david.open.problem.catalog.ReferenceDataRegistry;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemCardView;
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.entity.Problem;
+import com.david.open.problem.entity.ProblemStatement;
+import com.david.open.problem.mapper.ProblemCardMapper;
+import com.david.open.problem.mapper.ProblemCardMapper.CardRow;
+import com.david.open.problem.mapper.ProblemMapper;
+import com.david.open.problem.mapper.ProblemStatementMapper;
+import com.david.open.problem.mapper.ProblemTagMapper;
+import com.david.open.problem.support.OverlapWatermark;
+import com.david.open.problem.support.ProblemCursor;
+import com.david.open.problem.support.PublishedProblems;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 维护持久化的题目卡片读模型 {@code problem_cards}，并在目录快照不可用时承接默认顺序的列表分页。
+ *
+ * <p>按 {@code problems} 与 {@code problem_statements} 的 {@code updated_at} 水位增量拉取变更，与
+ * {@link com.david.open.problem.catalog.ProblemCatalog} 一样把查询下界提前 {@link #WATERMARK_OVERLAP}，
+ * 同一时刻或晚提交的修改不会漏掉；窗口内已重写过的 {@code (id, updated_at)} 被跳过，再次拉到的行整体重写，
+ * 结果不变。标签与难度改名通过比较前后两份 {@link ReferenceData} 发现。{@code problem_tags} 没有时间戳，标签关联的变化
+ * 来自目录对账事件，目录关闭时由周期性对账兜底。每道题的卡片总是整体删除后重写，单个批次在一个事务内完成。
+ *
+ * <p>多实例部署时只有持有 {@link ProblemCardWriterLock} 的实例同步、修复与重建，其余实例只读。写入权随时
+ * 可能转移，接手的实例从读模型自身恢复水位后续接。
+ */
+@Slf4j
+@Component
+public class ProblemCardReadModel {
+
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+
+    private final ProblemCardMapper problemCardMapper;
+    private final ProblemCardProjector projector;
+    private final ProblemMapper problemMapper;
+    private final ProblemStatementMapper problemStatementMapper;
+    private final ProblemTagMapper problemTagMapper;
+    private final ReferenceDataRegistry referenceData;
+    private final ProblemCardWriterLock writerLock;
+    private final TransactionTemplate writeTransaction;
+    private final PublicProblemProperties properties;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final OverlapWatermark problemMark = new OverlapWatermark(WATERMARK_OVERLAP);
+    private final OverlapWatermark statementMark = new OverlapWatermark(WATERMARK_OVERLAP);
+
+    private volatile boolean ready;
+    private volatile boolean writer;
+    private volatile Instant lastSyncAt;
+    private volatile int lastSyncedProblems;
+    private volatile ProblemCardCheck lastCheck;
+    private Map<Long, TagInfo> knownTags = Map.of();
+    private Map<Integer, DifficultyInfo> knownDifficulties = Map.of();
+
+    public ProblemCardReadModel(
+            ProblemCardMapper problemCardMapper,
+            ProblemCardProjector projector,
+            ProblemMapper problemMapper,
+            ProblemStatementMapper problemStatementMapper,
+            ProblemTagMapper problemTagMapper,
+            ReferenceDataRegistry referenceData,
+            ProblemCardWriterLock writerLock,
+            PlatformTransactionManager transactionManager,
+            PublicProblemProperties properties) {
+        this.problemCardMapper = problemCardMapper;
+        this.projector = projector;
+        this.problemMapper = problemMapper;
+        this.problemStatementMapper = problemStatementMapper;
+        this.problemTagMapper = problemTagMapper;
+        this.referenceData = referenceData;
+        this.writerLock = writerLock;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /** 读模型已同步且维护了该语言的卡片时，才能用它分页。 */
+    public boolean isServing(String lang) {
+        return properties.getReadModel().isEnabled() && ready && languages().contains(lang);
+    }
+
+    public long count(String lang) {
+        return problemCardMapper.countByLang(lang);
+    }
+
+    /**
+     * 按默认顺序读取一页卡片，只执行一条走 {@code (lang_code, problem_updated_at, problem_id)} 索引的查询。
+     *
+     * @param after  游标，非空时忽略 {@code offset}
+     * @param limit  最多返回的条数
+     * @param offset 无游标时跳过的条数
+     */
+    public List<ProblemCardView> page(String lang, ProblemCursor after, int limit, long offset) {
+        List<CardRow> rows =
+                after != null
+                        ? problemCardMapper.selectPage(
+                                lang, after.updatedAt(), after.id(), limit, 0)
+                        : problemCardMapper.selectPage(lang, null, null, limit, offset);
+        return rows.stream().map(projector::toView).toList();
+    }
+
+    public ProblemCardStats stats() {
+        return new ProblemCardStats(
+                properties.getReadModel().isEnabled(),
+                ready,
+                writer,
+                languages(),
+                problemMark.mark(),
+                statementMark.mark(),
+                pending.size(),
+                lastSyncAt,
+                lastSyncedProblems,
+                lastCheck);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!properties.getReadModel().isEnabled()) {
+            return;
+        }
+        try {
+            syncIfWriter();
+        } catch (Exception e) {
+            log.warn("初始化题目卡片读模型失败，列表查询继续直接查库: {}", e.getMessage());
+        }
+    }
+
+    /** 目录对账发现的标签关联变化不会推高任何水位，登记下来随下次同步重写。 */
+    @EventListener
+    public void onCatalogRefreshed(ProblemCatalogRefreshedEvent event) {
+        if (!properties.getReadModel().isEnabled()
+                || !writer
+                || event.previous().size() == 0) {
+            return;
+        }
+        pending.addAll(event.changedIds());
+        pending.addAll(event.removedIds());
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.read-model.sync-interval:PT10S}",
+            fixedDelayString = "${ulticode.problem.read-model.sync-interval:PT10S}")
+    public void scheduledSync() {
+        if (!properties.getReadModel().isEnabled()) {
+            return;
+        }
+        try {
+            syncIfWriter();
+        } catch (Exception e) {
+            log.warn("增量同步题目卡片失败: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.read-model.check-interval:PT30M}",
+            fixedDelayString = "${ulticode.problem.read-model.check-interval:PT30M}")
+    public void scheduledCheck() {
+        if (!properties.getReadModel().isEnabled() || !ready || !writer) {
+            return;
+        }
+        try {
+            check(true);
+        } catch (Exception e) {
+            log.warn("对账题目卡片失败: {}", e.getMessage());
+        }
+    }
+
+    /** 重写水位之后变更过的题目、登记待同步的题目以及引用了改名标签或难度的题目，返回重写的题目数。 */
+    public synchronized int sync() {
+        requireWriter();
+        Set<Long> ids = new LinkedHashSet<>(pending);
+        pending.removeAll(ids);
+        try {
+            LocalDateTime problemsFrom = problemMark.lowerBound();
+            List<Problem> problems =
+                    problemMark.unseen(
+                            problemMapper.selectList(
+                                    Wrappers.lambdaQuery(Problem.class)
+                                            .select(Problem::getId, Problem::getUpdatedAt)
+                                            .ge(
+                                                    problemsFrom != null,
+                                                    Problem::getUpdatedAt,
+                                                    problemsFrom)),
+                            Problem::getId,
+                            Problem::getUpdatedAt);
+            LocalDateTime statementsFrom = statementMark.lowerBound();
+            List<ProblemStatement> statements =
+                    statementMark.unseen(
+                            problemStatementMapper.selectList(
+                                    Wrappers.lambdaQuery(ProblemStatement.class)
+                                            .select(
+                                                    ProblemStatement::getId,
+                                                    ProblemStatement::getProblemId,
+                                                    ProblemStatement::getUpdatedAt)
+                                            .ge(
+                                                    statementsFrom != null,
+                                                    ProblemStatement::getUpdatedAt,
+                                                    statementsFrom)),
+                            ProblemStatement::getId,
+                            ProblemStatement::getUpdatedAt);
+            problems.forEach(problem -> ids.add(problem.getId()));
+            statements.forEach(statement -> ids.add(statement.getProblemId()));
+            ids.addAll(problemsWithRenamedReferences(referenceData.current()));
+            ids.remove(null);
+
+            write(List.copyOf(ids));
+            problemMark.advance(problems, Problem::getId, Problem::getUpdatedAt);
+            statementMark.advance(
+                    statements, ProblemStatement::getId, ProblemStatement::getUpdatedAt);
+        } catch (RuntimeException e) {
+            pending.addAll(ids);
+            throw e;
+        }
+        ready = true;
+        lastSyncAt = Instant.now();
+        lastSyncedProblems = ids.size();
+        if (!ids.isEmpty()) {
+            log.debug("题目卡片增量同步: 重写 {} 道题", ids.size());
+        }
+        return ids.size();
+    }
+
+    /**
+     * 从源表全量重建读模型。水位取自重建开始前，重建期间发生的修改会被下一次增量同步再次覆盖。
+     */
+    public synchronized ProblemCardStats rebuild() {
+        requireWriter();
+        LocalDateTime problemsAt = problemMapper.selectLatestUpdatedAt();
+        LocalDateTime statementsAt = problemStatementMapper.selectLatestUpdatedAt();
+        rememberReferenceData(referenceData.current());
+        List<Long> live = publishedIds();
+        write(live);
+        Set<Long> orphans = new HashSet<>(problemCardMapper.selectProblemIds());
+        live.forEach(orphans::remove);
+        delete(List.copyOf(orphans));
+
+        // 窗口内的行下一次同步会再重写一遍，卡片整体替换，结果不变
+        problemMark.reset(problemsAt);
+        statementMark.reset(statementsAt);
+        ready = true;
+        log.info("题目卡片读模型重建完成: {} 道题, 清理 {} 道已下线题目", live.size(), orphans.size());
+        return stats();
+    }
+
+    /**
+     * 逐批比较读模型与按源表现算的卡片。{@code repair} 为真时重写有差异的题目并删除已下线题目的卡片，
+     * 只能在写入方执行；只对账不修改时任何实例都可执行。
+     */
+    public synchronized ProblemCardCheck check(boolean repair) {
+        if (repair) {
+            requireWriter();
+        }
+        Instant startedAt = Instant.now();
+        List<String> languages = languages();
+        List<Long> live = publishedIds();
+        int missing = 0;
+        int stale = 0;
+        int foreign = 0;
+        Set<Long> broken = new LinkedHashSet<>();
+        for (List<Long> chunk : chunks(live)) {
+            Map<RowKey, CardRow> stored = new HashMap<>();
+            for (CardRow row : problemCardMapper.selectByProblemIds(chunk)) {
+                stored.put(new RowKey(row.problemId(), row.langCode()), row);
+            }
+            for (CardRow expected : projector.project(chunk, languages)) {
+                CardRow actual =
+                        stored.remove(new RowKey(expected.problemId(), expected.langCode()));
+                if (actual == null) {
+                    missing++;
+                    broken.add(expected.problemId());
+                } else if (!actual.equals(expected)) {
+                    stale++;
+                    broken.add(expected.problemId());
+                }
+            }
+            for (CardRow extra : stored.values()) {
+                foreign++;
+                broken.add(extra.problemId());
+            }
+        }
+        Set<Long> orphans = new LinkedHashSet<>(problemCardMapper.selectProblemIds());
+        live.forEach(orphans::remove);
+
+        if (repair) {
+            write(List.copyOf(broken));
+            delete(List.copyOf(orphans));
+        }
+        ProblemCardCheck result =
+                new ProblemCardCheck(
+                        startedAt,
+                        Duration.between(startedAt, Instant.now()),
+                        live.size(),
+                        missing,
+                        stale,
+                        foreign,
+                        orphans.size(),
+                        repair);
+        lastCheck = result;
+        if (!result.consistent()) {
+            log.warn(
+                    "题目卡片对账发现差异: 缺失 {} 行, 过期 {} 行, 多余语言 {} 行, 残留下线题目 {} 道{}",
+                    missing,
+                    stale,
+                    foreign,
+                    orphans.size(),
+                    repair ? "，已修复" : "");
+        }
+        return result;
+    }
+
+    /** 本实例是写入方时增量同步，否则只确认读模型是否已有数据可供查询。 */
+    private synchronized void syncIfWriter() {
+        if (claimWriter()) {
+            sync();
+        } else if (!ready) {
+            ready = problemCardMapper.selectLatestProblemUpdatedAt() != null;
+        }
+    }
+
+    private void requireWriter() {
+        if (!claimWriter()) {
+            throw new IllegalStateException("题目卡片读模型由其它实例写入，请在持有写锁的实例上执行");
+        }
+    }
+
+    /**
+     * 确认本实例持有写锁，返回能否写入。刚接手时从读模型自身恢复水位，重叠窗口内的行会重新拉取一遍，
+     * 覆盖前一写入方只处理了一部分的时刻；读模型为空时水位为空，下一次同步即全量写入。
+     */
+    private boolean claimWriter() {
+        if (!writerLock.acquire()) {
+            if (writer) {
+                log.info("题目卡片读模型的写入已转由其它实例负责");
+            }
+            writer = false;
+            pending.clear();
+            return false;
+        }
+        if (!writer) {
+            LocalDateTime problemsAt = problemCardMapper.selectLatestProblemUpdatedAt();
+            LocalDateTime statementsAt = problemCardMapper.selectLatestStatementUpdatedAt();
+            problemMark.reset(problemsAt);
+            statementMark.reset(statementsAt);
+            rememberReferenceData(referenceData.current());
+            writer = true;
+            if (problemsAt != null) {
+                log.info("本实例接手题目卡片读模型的写入，从水位 {} 续接同步", problemsAt);
+            } else {
+                log.info("本实例接手题目卡片读模型的写入，读模型为空，将全量写入");
+            }
+        }
+        return true;
+    }
+
+    private void write(List<Long> problemIds) {
+        List<String> languages = languages();
+        for (List<Long> chunk : chunks(problemIds)) {
+            writeTransaction.executeWithoutResult(
+                    status -> {
+                        List<CardRow> rows = projector.project(chunk, languages);
+                        problemCardMapper.deleteByProblemIds(chunk);
+                        if (!rows.isEmpty()) {
+                            problemCardMapper.insertCards(rows);
+                        }
+                    });
+        }
+    }
+
+    private void delete(List<Long> problemIds) {
+        for (List<Long> chunk : chunks(problemIds)) {
+            problemCardMapper.deleteByProblemIds(chunk);
+        }
+    }
+
+    /** 返回引用了自上次同步以来改名的标签或难度的题目，并记住当前的字典。 */
+    private Set<Long> problemsWithRenamedReferences(ReferenceData dictionaries) {
+        Set<Long> renamedTags = new LinkedHashSet<>();
+        for (TagInfo tag : dictionaries.tags()) {
+            TagInfo known = knownTags.get(tag.id());
+            if (known != null && !known.equals(tag)) {
+                renamedTags.add(tag.id());
+            }
+        }
+        Set<Integer> renamedDifficulties = new LinkedHashSet<>();
+        for (DifficultyInfo difficulty : dictionaries.difficulties()) {
+            DifficultyInfo known = knownDifficulties.get(difficulty.id());
+            if (known != null && !Objects.equals(known.code(), difficulty.code())) {
+                renamedDifficulties.add(difficulty.id());
+            }
+        }
+        rememberReferenceData(dictionaries);
+
+        Set<Long> ids = new LinkedHashSet<>();
+        if (!renamedTags.isEmpty()) {
+            ids.addAll(problemTagMapper.selectProblemIdsByTags(renamedTags));
+        }
+        if (!renamedDifficulties.isEmpty()) {
+            for (Object id :
+                    problemMapper.selectObjs(
+                            Wrappers.lambdaQuery(Problem.class)
+                                    .select(Problem::getId)
+                                    .in(Problem::getDifficultyId, renamedDifficulties))) {
+                ids.add(((Number) id).longValue());
+            }
+        }
+        return ids;
+    }
+
+    private void rememberReferenceData(ReferenceData dictionaries) {
+        Map<Long, TagInfo> tags = new HashMap<>();
+        dictionaries.tags().forEach(tag -> tags.put(tag.id(), tag));
+        Map<Integer, DifficultyInfo> difficulties = new HashMap<>();
+        dictionaries
+                .difficulties()
+                .forEach(difficulty -> difficulties.put(difficulty.id(), difficulty));
+        knownTags = tags;
+        knownDifficulties = difficulties;
+    }
+
+    private List<Long> publishedIds() {
+        List<Long> ids = new ArrayList<>();
+        List<Object> rows =
+                problemMapper.selectObjs(PublishedProblems.query().select(Problem::getId));
+        for (Object id : rows) {
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    private List<String> languages() {
+        return properties.getReadModel().getLanguages();
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        int batchSize = Math.max(properties.getReadModel().getBatchSize(), 1);
+        List<List<Long>> result = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            result.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        return result;
+    }
+
+    private record RowKey(Long problemId, String langCode) {}
+}
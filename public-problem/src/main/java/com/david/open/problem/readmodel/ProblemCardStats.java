@@ -0,0 +1,31 @@
+package com.david.open.problem.readmodel;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 题目卡片读模型的运行状态。
+ *
+ * @param enabled            是否启用读模型
+ * @param ready              是否已完成首次同步，可以承接列表查询
+ * @param writer             本实例是否持有写锁、负责同步与修复
+ * @param languages          维护卡片的列表语言
+ * @param problemWatermark   题目表的增量水位
+ * @param statementWatermark 题面表的增量水位
+ * @param pendingProblems    由目录对账等途径登记、等待下次同步的题目数
+ * @param lastSyncAt         最近一次增量同步完成时间
+ * @param lastSyncedProblems 最近一次增量同步重写的题目数
+ * @param lastCheck          最近一次对账结果，尚未对账时为空
+ */
+public record ProblemCardStats(
+        boolean enabled,
+        boolean ready,
+        boolean writer,
+        List<String> languages,
+        LocalDateTime problemWatermark,
+        LocalDateTime statementWatermark,
+        int pendingProblems,
+        Instant lastSyncAt,
+        int lastSyncedProblems,
+        ProblemCardCheck lastCheck) {}
@@ -0,0 +1,101 @@
+package com.david.open.problem.readmodel;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+/**
+ * 多实例部署时保证只有一个实例写 {@code problem_cards}：持有 MySQL 命名锁的实例是写入方。
+ *
+ * <p>命名锁归属于数据库会话，写入方从连接池借出一条专用连接并一直持有，实例退出或连接断开时锁随会话释放，
+ * 其它实例在下一次调度时以零等待的 {@code GET_LOCK} 接手。每次写入前都用 {@code IS_USED_LOCK} 确认锁仍在
+ * 这条连接上，确认失败即视为失去写入权。
+ */
+@Slf4j
+@Component
+public class ProblemCardWriterLock {
+
+    private static final String LOCK_NAME = "ulticode.problem_cards.writer";
+
+    private final DataSource dataSource;
+    private Connection connection;
+
+    public ProblemCardWriterLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** 已持有锁时确认仍然有效，否则尝试获取；返回本实例当前是否为写入方。 */
+    public synchronized boolean acquire() {
+        if (connection != null) {
+            if (stillHeld()) {
+                return true;
+            }
+            log.warn("题目卡片写锁已失效，放弃写入权");
+            closeQuietly(connection);
+            connection = null;
+        }
+        Connection candidate = null;
+        try {
+            candidate = dataSource.getConnection();
+            if (queryFlag(candidate, "SELECT GET_LOCK(?, 0)")) {
+                connection = candidate;
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("获取题目卡片写锁失败: {}", e.getMessage());
+        }
+        closeQuietly(candidate);
+        return false;
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            queryFlag(connection, "SELECT RELEASE_LOCK(?)");
+        } catch (SQLException e) {
+            log.debug("释放题目卡片写锁失败，随连接关闭释放: {}", e.getMessage());
+        }
+        closeQuietly(connection);
+        connection = null;
+    }
+
+    private boolean stillHeld() {
+        try {
+            return queryFlag(connection, "SELECT IS_USED_LOCK(?) = CONNECTION_ID()");
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static boolean queryFlag(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("关闭题目卡片写锁连接失败: {}", e.getMessage());
+        }
+    }
+}
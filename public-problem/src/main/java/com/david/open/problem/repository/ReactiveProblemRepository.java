@@ -0,0 +1,348 @@
+package com.david.open.problem.repository;
+
+import com.david.open.problem.mapper.ProblemDetailMapper.DetailChildRow;
+import com.david.open.problem.mapper.ProblemDetailMapper.DetailHeadRow;
+import com.david.open.problem.mapper.ProblemDetailMapper.StarterCodeRow;
+import com.david.open.problem.mapper.ProblemExportMapper.ExportRow;
+import com.david.open.problem.mapper.ProblemMapper.ProblemCardRow;
+import com.david.open.problem.mapper.ProblemStatementMapper.StatementTitleRow;
+import com.david.open.problem.mapper.ProblemTagMapper.TagRelationRow;
+import com.david.open.problem.support.ProblemCursor;
+import com.david.open.problem.support.PublishedProblems;
+
+import io.r2dbc.spi.Readable;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 响应式部署下的题目查询，语句与返回行逐一对应 {@code mapper} 包中的 MyBatis 查询，
+ * 两种部署读到的数据与组装出的响应完全一致。
+ *
+ * <p>语言优先级用 {@code FIELD(lang_code, :langs)} 排序，与 MyBatis 语句中按下标生成的 {@code CASE} 等价。
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveProblemRepository {
+
+    private static final String PUBLISHED =
+            """
+              AND p.is_public = 1
+              AND p.lifecycle_status = :lifecycleStatus
+              AND p.review_status = :reviewStatus
+            """;
+
+    private static final String PREFERRED_STATEMENT =
+            """
+            LEFT JOIN problem_statements s ON s.id = (
+                SELECT ps.id
+                FROM problem_statements ps
+                WHERE ps.problem_id = p.id
+                  AND ps.lang_code IN (:langs)
+                ORDER BY FIELD(ps.lang_code, :langs), ps.id
+                LIMIT 1)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProblemRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /** 对应详情与起始代码的版本查询，题目不存在或未公开时为空。 */
+    public Mono<LocalDateTime> findPublishedVersion(String slug) {
+        return published(
+                        databaseClient.sql(
+                                "SELECT p.updated_at FROM problems p WHERE p.slug = :slug"
+                                        + PUBLISHED
+                                        + "LIMIT 1"))
+                .bind("slug", slug)
+                .map(row -> row.get("updated_at", LocalDateTime.class))
+                .one();
+    }
+
+    public Mono<Long> countPublished() {
+        return published(
+                        databaseClient.sql(
+                                "SELECT COUNT(*) AS total FROM problems p WHERE 1 = 1"
+                                        + PUBLISHED))
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /** 对应 {@code ProblemMapper#selectCardRows} 的默认排序分页，有游标时忽略 {@code offset}。 */
+    public Flux<ProblemCardRow> findCardPage(ProblemCursor after, int limit, long offset) {
+        String sql =
+                """
+                SELECT p.id, p.slug, p.difficulty_id, p.time_limit_ms, p.memory_limit_kb,
+                       p.meta_json, p.updated_at
+                FROM problems p
+                WHERE 1 = 1
+                """
+                        + PUBLISHED
+                        + (after != null
+                                ? """
+                                  AND (p.updated_at < :afterUpdatedAt
+                                       OR (p.updated_at = :afterUpdatedAt AND p.id < :afterId))
+                                ORDER BY p.updated_at DESC, p.id DESC
+                                LIMIT :limit
+                                """
+                                : """
+                                ORDER BY p.updated_at DESC, p.id DESC
+                                LIMIT :limit OFFSET :offset
+                                """);
+        GenericExecuteSpec spec = published(databaseClient.sql(sql)).bind("limit", limit);
+        spec =
+                after != null
+                        ? spec.bind("afterUpdatedAt", after.updatedAt()).bind("afterId", after.id())
+                        : spec.bind("offset", offset);
+        return spec.map(
+                        row ->
+                                new ProblemCardRow(
+                                        row.get("id", Long.class),
+                                        row.get("slug", String.class),
+                                        row.get("difficulty_id", Integer.class),
+                                        row.get("time_limit_ms", Integer.class),
+                                        row.get("memory_limit_kb", Integer.class),
+                                        row.get("meta_json", String.class),
+                                        row.get("updated_at", LocalDateTime.class)))
+                .all();
+    }
+
+    /** 对应 {@code ProblemStatementMapper#selectTitles}。 */
+    public Flux<StatementTitleRow> findTitles(Collection<Long> problemIds, List<String> langs) {
+        return databaseClient
+                .sql(
+                        """
+                        SELECT ps.problem_id, ps.lang_code, ps.title
+                        FROM problem_statements ps
+                        WHERE ps.problem_id IN (:problemIds)
+                          AND ps.lang_code IN (:langs)
+                        """)
+                .bind("problemIds", problemIds)
+                .bind("langs", langs)
+                .map(
+                        row ->
+                                new StatementTitleRow(
+                                        row.get("problem_id", Long.class),
+                                        row.get("lang_code", String.class),
+                                        row.get("title", String.class)))
+                .all();
+    }
+
+    /** 对应 {@code ProblemTagMapper#selectTagIdsForProblems}。 */
+    public Flux<TagRelationRow> findTagRelations(Collection<Long> problemIds) {
+        return databaseClient
+                .sql(
+                        """
+                        SELECT pt.problem_id, pt.tag_id
+                        FROM problem_tags pt
+                        WHERE pt.problem_id IN (:problemIds)
+                        ORDER BY pt.problem_id ASC
+                        """)
+                .bind("problemIds", problemIds)
+                .map(
+                        row ->
+                                new TagRelationRow(
+                                        row.get("problem_id", Long.class),
+                                        row.get("tag_id", Long.class)))
+                .all();
+    }
+
+    /** 对应 {@code ProblemDetailMapper#selectPublishedDetailHead}。 */
+    public Mono<DetailHeadRow> findDetailHead(String slug, List<String> langs) {
+        return published(
+                        databaseClient.sql(
+                                """
+                                SELECT p.id, p.slug, p.difficulty_id, d.code AS difficulty_code,
+                                       p.time_limit_ms, p.memory_limit_kb, p.meta_json,
+                                       p.updated_at, s.lang_code, s.title, s.description_md,
+                                       s.constraints_md, s.examples_md
+                                FROM problems p
+                                LEFT JOIN difficulties d ON d.id = p.difficulty_id
+                                """
+                                        + PREFERRED_STATEMENT
+                                        + "WHERE p.slug = :slug\n"
+                                        + PUBLISHED
+                                        + "LIMIT 1"))
+                .bind("slug", slug)
+                .bind("langs", langs)
+                .map(
+                        row ->
+                                new DetailHeadRow(
+                                        row.get("id", Long.class),
+                                        row.get("slug", String.class),
+                                        row.get("difficulty_id", Integer.class),
+                                        row.get("difficulty_code", String.class),
+                                        row.get("time_limit_ms", Integer.class),
+                                        row.get("memory_limit_kb", Integer.class),
+                                        row.get("meta_json", String.class),
+                                        row.get("updated_at", LocalDateTime.class),
+                                        row.get("lang_code", String.class),
+                                        row.get("title", String.class),
+                                        row.get("description_md", String.class),
+                                        row.get("constraints_md", String.class),
+                                        row.get("examples_md", String.class)))
+                .one();
+    }
+
+    /** 对应 {@code ProblemDetailMapper#selectDetailChildren}。 */
+    public Flux<DetailChildRow> findDetailChildren(Long problemId, boolean withStarterCode) {
+        String languageColumns =
+                withStarterCode
+                        ? "plc.function_name AS function_name, plc.starter_code AS starter_code"
+                        : "NULL AS function_name, NULL AS starter_code";
+        return databaseClient
+                .sql(
+                        """
+                        SELECT 'tag' AS kind, t.id AS ref_id, t.name AS name, t.slug AS code,
+                               NULL AS function_name, NULL AS starter_code
+                        FROM problem_tags pt
+                        JOIN tags t ON t.id = pt.tag_id
+                        WHERE pt.problem_id = :problemId
+                        UNION ALL
+                        SELECT 'language' AS kind, plc.language_id AS ref_id,
+                               l.display_name AS name, l.code AS code,
+                        """
+                                + languageColumns
+                                + """
+
+                                FROM problem_language_configs plc
+                                LEFT JOIN languages l ON l.id = plc.language_id
+                                WHERE plc.problem_id = :problemId
+                                """)
+                .bind("problemId", problemId)
+                .map(
+                        row ->
+                                new DetailChildRow(
+                                        row.get("kind", String.class),
+                                        row.get("ref_id", Long.class),
+                                        row.get("name", String.class),
+                                        row.get("code", String.class),
+                                        row.get("function_name", String.class),
+                                        row.get("starter_code", String.class)))
+                .all();
+    }
+
+    /** 对应 {@code ProblemDetailMapper#selectPublishedStarterCode}。 */
+    public Mono<StarterCodeRow> findStarterCode(String slug, String languageCode) {
+        return published(
+                        databaseClient.sql(
+                                """
+                                SELECT p.id, p.slug, p.updated_at, l.id AS language_id,
+                                       l.code AS language_code, l.display_name,
+                                       plc.function_name, plc.starter_code
+                                FROM problems p
+                                JOIN problem_language_configs plc ON plc.problem_id = p.id
+                                JOIN languages l ON l.id = plc.language_id
+                                WHERE p.slug = :slug
+                                  AND l.code = :languageCode
+                                """
+                                        + PUBLISHED
+                                        + "LIMIT 1"))
+                .bind("slug", slug)
+                .bind("languageCode", languageCode)
+                .map(
+                        row ->
+                                new StarterCodeRow(
+                                        row.get("id", Long.class),
+                                        row.get("slug", String.class),
+                                        row.get("updated_at", LocalDateTime.class),
+                                        row.get("language_id", Integer.class),
+                                        row.get("language_code", String.class),
+                                        row.get("display_name", String.class),
+                                        row.get("function_name", String.class),
+                                        row.get("starter_code", String.class)))
+                .one();
+    }
+
+    /**
+     * 对应 {@code ProblemExportMapper#selectPublishedPage}。整页读完即归还连接，导出期间不长期占用连接。
+     *
+     * @param afterId 上一页最后一道题的ID，首页为空
+     */
+    public Mono<List<ExportRow>> findExportPage(
+            List<String> langs,
+            boolean detail,
+            LocalDateTime updatedSince,
+            Long afterId,
+            int limit) {
+        String bodyColumns =
+                detail
+                        ? "s.description_md, s.constraints_md, s.examples_md,"
+                        : "NULL AS description_md, NULL AS constraints_md, NULL AS examples_md,";
+        String languagesColumn =
+                detail
+                        ? """
+                        (SELECT JSON_ARRAYAGG(JSON_OBJECT(
+                                'languageId', plc.language_id,
+                                'functionName', plc.function_name,
+                                'starterCode', plc.starter_code))
+                         FROM problem_language_configs plc
+                         WHERE plc.problem_id = p.id) AS languages_json
+                        """
+                        : "NULL AS languages_json\n";
+        String sql =
+                """
+                SELECT p.id, p.slug, p.difficulty_id, p.time_limit_ms, p.memory_limit_kb,
+                       p.meta_json, p.updated_at, s.title,
+                """
+                        + bodyColumns
+                        + """
+
+                        (SELECT GROUP_CONCAT(pt.tag_id)
+                         FROM problem_tags pt
+                         WHERE pt.problem_id = p.id) AS tag_ids,
+                        """
+                        + languagesColumn
+                        + "FROM problems p\n"
+                        + PREFERRED_STATEMENT
+                        + "WHERE 1 = 1\n"
+                        + PUBLISHED
+                        + (updatedSince != null ? "  AND p.updated_at >= :updatedSince\n" : "")
+                        + (afterId != null ? "  AND p.id > :afterId\n" : "")
+                        + "ORDER BY p.id ASC\n"
+                        + "LIMIT :limit";
+        GenericExecuteSpec spec =
+                published(databaseClient.sql(sql)).bind("langs", langs).bind("limit", limit);
+        if (updatedSince != null) {
+            spec = spec.bind("updatedSince", updatedSince);
+        }
+        if (afterId != null) {
+            spec = spec.bind("afterId", afterId);
+        }
+        return spec.map(ReactiveProblemRepository::toExportRow).all().collectList();
+    }
+
+    private static ExportRow toExportRow(Readable row) {
+        return new ExportRow(
+                row.get("id", Long.class),
+                row.get("slug", String.class),
+                row.get("difficulty_id", Integer.class),
+                row.get("time_limit_ms", Integer.class),
+                row.get("memory_limit_kb", Integer.class),
+                row.get("meta_json", String.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("title", String.class),
+                row.get("description_md", String.class),
+                row.get("constraints_md", String.class),
+                row.get("examples_md", String.class),
+                row.get("tag_ids", String.class),
+                row.get("languages_json", String.class));
+    }
+
+    private static GenericExecuteSpec published(GenericExecuteSpec spec) {
+        return spec.bind("lifecycleStatus", PublishedProblems.LIFECYCLE_PUBLISHED)
+                .bind("reviewStatus", PublishedProblems.REVIEW_APPROVED);
+    }
+}
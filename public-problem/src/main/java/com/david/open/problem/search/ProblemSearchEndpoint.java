@@ -0,0 +1,28 @@
+package com.david.open.problem.search;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/** 通过 {@code /actuator/problemsearch} 查看全文索引状态或按当前目录快照全量重建。 */
+@Component
+@Endpoint(id = "problemsearch")
+public class ProblemSearchEndpoint {
+
+    private final ProblemSearchIndex searchIndex;
+
+    public ProblemSearchEndpoint(ProblemSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @ReadOperation
+    public SearchStats stats() {
+        return searchIndex.stats();
+    }
+
+    @WriteOperation
+    public SearchStats rebuild() {
+        return searchIndex.rebuild();
+    }
+}
@@ -0,0 +1,400 @@
+package com.david.open.problem.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.open.problem.catalog.CatalogSnapshot;
+import com.david.open.problem.catalog.ProblemCatalog;
+import com.david.open.problem.catalog.ProblemCatalogRefreshedEvent;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.entity.ProblemStatement;
+import com.david.open.problem.mapper.ProblemStatementMapper;
+import com.david.open.problem.support.OverlapWatermark;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于 Lucene 的进程内全文索引，覆盖题目各语言的标题、描述以及标签名称。
+ *
+ * <p>索引只收录内存目录中的公开题目，随目录快照的变更事件增量维护；描述正文的修改不会体现在目录的
+ * 变更集中，因此另外按 {@code problem_statements.updated_at} 水位轮询。中文使用 SmartChineseAnalyzer
+ * 分词，英文同时做小写化与词干还原；排序沿用 Lucene 默认的 BM25。
+ *
+ * <p>输入联想的前缀匹配不能用分词后的标题字段（词干还原会把 {@code sorting} 存成 {@code sort}），
+ * 因此标题另存一份只切词、小写、不还原词干的字段专供前缀查询。
+ */
+@Slf4j
+@Component
+public class ProblemSearchIndex {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_SLUG = "slug";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_TITLE_EXACT = "title_exact";
+    static final String FIELD_TITLE_WORDS = "title_words";
+    static final String FIELD_TAGS = "tags";
+    static final String FIELD_BODY = "body";
+
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+
+    private final ProblemCatalog problemCatalog;
+    private final ProblemStatementMapper problemStatementMapper;
+    private final PublicProblemProperties properties;
+    private final Analyzer analyzer = new SmartChineseAnalyzer();
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    private volatile boolean ready;
+    private final OverlapWatermark statementMark = new OverlapWatermark(WATERMARK_OVERLAP);
+
+    public ProblemSearchIndex(
+            ProblemCatalog problemCatalog,
+            ProblemStatementMapper problemStatementMapper,
+            PublicProblemProperties properties)
+            throws IOException {
+        this.problemCatalog = problemCatalog;
+        this.problemStatementMapper = problemStatementMapper;
+        this.properties = properties;
+        Analyzer indexAnalyzer =
+                new PerFieldAnalyzerWrapper(
+                        analyzer, Map.of(FIELD_TITLE_WORDS, new StandardAnalyzer()));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(indexAnalyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 按相关度检索题目ID。{@code prefix} 为真时把最后一个词当作前缀，用于输入联想。
+     *
+     * @param limit 需要的最大命中数
+     */
+    public SearchHits search(String text, boolean prefix, int limit) {
+        Query query = buildQuery(text, prefix);
+        if (query == null || limit <= 0) {
+            return new SearchHits(List.of(), 0, true);
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, limit);
+                List<Long> ids = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    String id = searcher.storedFields().document(hit.doc).get(FIELD_ID);
+                    ids.add(Long.parseLong(id));
+                }
+                return new SearchHits(
+                        ids,
+                        top.totalHits.value,
+                        top.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public SearchStats stats() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return new SearchStats(
+                        properties.getSearch().isEnabled(),
+                        ready,
+                        searcher.getIndexReader().numDocs(),
+                        indexBytes(),
+                        statementMark.mark());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(ProblemCatalogRefreshedEvent event) {
+        if (!properties.getSearch().isEnabled()) {
+            return;
+        }
+        try {
+            if (!ready) {
+                rebuild(event.current());
+                return;
+            }
+            apply(event.current(), event.changedIds(), event.removedIds());
+        } catch (Exception e) {
+            log.warn("更新题目搜索索引失败: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.search.refresh-interval:PT30S}",
+            fixedDelayString = "${ulticode.problem.search.refresh-interval:PT30S}")
+    public void scheduledRefresh() {
+        if (!properties.getSearch().isEnabled() || !ready) {
+            return;
+        }
+        try {
+            refreshStatements();
+        } catch (Exception e) {
+            log.warn("增量刷新题目搜索索引失败: {}", e.getMessage());
+        }
+    }
+
+    /** 依据当前目录快照全量重建索引。 */
+    public synchronized SearchStats rebuild() {
+        rebuild(problemCatalog.snapshot());
+        return stats();
+    }
+
+    private synchronized void rebuild(CatalogSnapshot snapshot) {
+        LocalDateTime latest = problemStatementMapper.selectLatestUpdatedAt();
+        try {
+            writer.deleteAll();
+            List<Long> ids = new ArrayList<>(snapshot.size());
+            for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+                ids.add(snapshot.id(ordinal));
+            }
+            index(snapshot, ids);
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // 窗口内的题面下一轮会再索引一次，按 ID 整体替换文档，结果不变
+        statementMark.reset(latest);
+        ready = true;
+        log.info(
+                "题目搜索索引构建完成: {} 道题, 约 {} KB",
+                snapshot.size(),
+                indexBytes() / 1024);
+    }
+
+    /**
+     * 拉取水位之后变更过的题面并重建对应文档。与 {@link ProblemCatalog} 相同，查询下界比水位提前
+     * {@link #WATERMARK_OVERLAP}，同一时刻或晚提交的修改不会漏掉；窗口内已索引过的行被跳过，
+     * 没有新变更时不会产生提交。
+     */
+    private synchronized void refreshStatements() {
+        LocalDateTime lowerBound = statementMark.lowerBound();
+        List<ProblemStatement> rows =
+                problemStatementMapper.selectList(
+                        Wrappers.lambdaQuery(ProblemStatement.class)
+                                .select(
+                                        ProblemStatement::getId,
+                                        ProblemStatement::getProblemId,
+                                        ProblemStatement::getUpdatedAt)
+                                .ge(
+                                        lowerBound != null,
+                                        ProblemStatement::getUpdatedAt,
+                                        lowerBound));
+        List<ProblemStatement> touched =
+                statementMark.unseen(rows, ProblemStatement::getId, ProblemStatement::getUpdatedAt);
+        if (touched.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (ProblemStatement statement : touched) {
+            if (statement.getProblemId() != null) {
+                ids.add(statement.getProblemId());
+            }
+        }
+        apply(problemCatalog.snapshot(), ids, Set.of());
+        statementMark.advance(touched, ProblemStatement::getId, ProblemStatement::getUpdatedAt);
+    }
+
+    private synchronized void apply(
+            CatalogSnapshot snapshot, Collection<Long> changedIds, Collection<Long> removedIds) {
+        if (changedIds.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
+        try {
+            for (Long id : removedIds) {
+                writer.deleteDocuments(new Term(FIELD_ID, String.valueOf(id)));
+            }
+            List<Long> present = new ArrayList<>(changedIds.size());
+            for (Long id : changedIds) {
+                if (snapshot.ordinalOf(id) >= 0) {
+                    present.add(id);
+                } else {
+                    writer.deleteDocuments(new Term(FIELD_ID, String.valueOf(id)));
+                }
+            }
+            index(snapshot, present);
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug(
+                "题目搜索索引增量更新: 重建 {} 道, 移除 {} 道", changedIds.size(), removedIds.size());
+    }
+
+    private void index(CatalogSnapshot snapshot, List<Long> ids) throws IOException {
+        int batchSize = Math.max(properties.getCatalog().getBatchSize(), 1);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            Map<Long, List<ProblemStatement>> statements = new HashMap<>();
+            for (ProblemStatement statement :
+                    problemStatementMapper.selectList(
+                            statementQuery().in(ProblemStatement::getProblemId, chunk))) {
+                statements
+                        .computeIfAbsent(statement.getProblemId(), ignored -> new ArrayList<>())
+                        .add(statement);
+            }
+            for (Long id : chunk) {
+                int ordinal = snapshot.ordinalOf(id);
+                if (ordinal < 0) {
+                    continue;
+                }
+                writer.updateDocument(
+                        new Term(FIELD_ID, String.valueOf(id)),
+                        toDocument(snapshot, ordinal, statements.getOrDefault(id, List.of())));
+            }
+        }
+    }
+
+    private Document toDocument(
+            CatalogSnapshot snapshot, int ordinal, List<ProblemStatement> statements) {
+        Document document = new Document();
+        document.add(
+                new StringField(FIELD_ID, String.valueOf(snapshot.id(ordinal)), Field.Store.YES));
+        document.add(
+                new StringField(FIELD_SLUG, normalize(snapshot.slug(ordinal)), Field.Store.NO));
+        for (ProblemStatement statement : statements) {
+            if (statement.getTitle() != null) {
+                document.add(new TextField(FIELD_TITLE, statement.getTitle(), Field.Store.NO));
+                document.add(
+                        new StringField(
+                                FIELD_TITLE_EXACT, normalize(statement.getTitle()), Field.Store.NO));
+                document.add(
+                        new TextField(FIELD_TITLE_WORDS, statement.getTitle(), Field.Store.NO));
+            }
+            if (statement.getDescriptionMd() != null) {
+                document.add(
+                        new TextField(FIELD_BODY, statement.getDescriptionMd(), Field.Store.NO));
+            }
+        }
+        for (TagInfo tag : snapshot.tagInfos(ordinal)) {
+            if (tag.name() != null) {
+                document.add(new TextField(FIELD_TAGS, tag.name(), Field.Store.NO));
+            }
+        }
+        return document;
+    }
+
+    private Query buildQuery(String text, boolean prefix) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        addClause(query, builder.createBooleanQuery(FIELD_TITLE, normalized), 3f);
+        addClause(query, builder.createBooleanQuery(FIELD_TAGS, normalized), 2f);
+        addClause(query, builder.createBooleanQuery(FIELD_BODY, normalized), 1f);
+        if (prefix) {
+            addClause(query, new PrefixQuery(new Term(FIELD_TITLE_EXACT, normalized)), 4f);
+            addClause(query, new PrefixQuery(new Term(FIELD_SLUG, normalized)), 2f);
+            String lastWord = normalized.substring(normalized.lastIndexOf(' ') + 1);
+            if (!lastWord.isEmpty()) {
+                addClause(query, new PrefixQuery(new Term(FIELD_TITLE_WORDS, lastWord)), 2f);
+            }
+        }
+        BooleanQuery built = query.build();
+        return built.clauses().isEmpty() ? null : built;
+    }
+
+    private long indexBytes() {
+        long bytes = 0;
+        try {
+            for (String file : directory.listAll()) {
+                bytes += directory.fileLength(file);
+            }
+        } catch (IOException e) {
+            log.debug("统计题目搜索索引大小失败: {}", e.getMessage());
+        }
+        return bytes;
+    }
+
+    private static void addClause(BooleanQuery.Builder query, Query clause, float boost) {
+        if (clause != null) {
+            query.add(new BoostQuery(clause, boost), Occur.SHOULD);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static LambdaQueryWrapper<ProblemStatement> statementQuery() {
+        return Wrappers.lambdaQuery(ProblemStatement.class)
+                .select(
+                        ProblemStatement::getProblemId,
+                        ProblemStatement::getTitle,
+                        ProblemStatement::getDescriptionMd);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * @param problemIds 按相关度排序的题目ID
+     * @param total      命中总数
+     * @param totalExact 命中总数是否精确（命中较多时 Lucene 只给出下界）
+     */
+    public record SearchHits(List<Long> problemIds, long total, boolean totalExact) {}
+
+    /** 题面增量拉取的位置：最后处理的一行的更新时间与ID。 */
+}
@@ -0,0 +1,19 @@
+package com.david.open.problem.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全文索引的运行状态。
+ *
+ * @param enabled            是否启用全文搜索
+ * @param ready              是否已完成首次构建
+ * @param documentCount      已收录的题目数
+ * @param estimatedBytes     索引占用的堆内存
+ * @param statementWatermark 题目描述表的增量水位
+ */
+public record SearchStats(
+        boolean enabled,
+        boolean ready,
+        int documentCount,
+        long estimatedBytes,
+        LocalDateTime statementWatermark) {}
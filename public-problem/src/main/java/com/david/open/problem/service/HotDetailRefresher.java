@@ -0,0 +1,55 @@
+package com.david.open.problem.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.open.problem.cache.HotDetailCache;
+import com.david.open.problem.cache.HotDetailCache.HotKey;
+import com.david.open.problem.support.DetailVersion;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在后台为热门题目详情重新生成常驻响应：题目版本变化后由这里回源一次，请求路径继续命中新的常驻响应。
+ *
+ * <p>版本取自内存目录，未变化的热门键不产生任何查询。
+ */
+@Slf4j
+@Component
+public class HotDetailRefresher {
+
+    private final HotDetailCache hotDetailCache;
+    private final ProblemQueryService problemQueryService;
+
+    public HotDetailRefresher(
+            HotDetailCache hotDetailCache, ProblemQueryService problemQueryService) {
+        this.hotDetailCache = hotDetailCache;
+        this.problemQueryService = problemQueryService;
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.hot-details.refresh-interval:PT1S}",
+            fixedDelayString = "${ulticode.problem.hot-details.refresh-interval:PT1S}")
+    public void refresh() {
+        for (HotKey key : hotDetailCache.hotKeys()) {
+            try {
+                DetailVersion version =
+                        problemQueryService.resolveDetailVersion(
+                                key.slug(), key.lang(), key.slim());
+                if (hotDetailCache.getIfCurrent(version) == null) {
+                    hotDetailCache.pin(key, problemQueryService.encodeProblemDetail(version));
+                }
+            } catch (BusinessException e) {
+                if (e.getStatus() == HttpStatus.NOT_FOUND) {
+                    hotDetailCache.remove(key);
+                } else {
+                    log.warn("刷新热门题目详情 {} 失败: {}", key, e.getMessage());
+                }
+            } catch (Exception e) {
+                log.warn("刷新热门题目详情 {} 失败: {}", key, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.david.open.problem.service;
+
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.dto.ProblemCardView.ProblemStats;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.dto.ProblemDetailResponse;
+import com.david.open.problem.dto.ProblemDetailResponse.LanguageConfig;
+import com.david.open.problem.mapper.ProblemDetailMapper.DetailChildRow;
+import com.david.open.problem.mapper.ProblemDetailMapper.DetailHeadRow;
+import com.david.open.problem.support.ProblemViews;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** 逐行接收详情子表结果（标签、语言配置），最终与主行拼装为 {@link ProblemDetailResponse}。 */
+final class ProblemDetailAssembler implements ResultHandler<DetailChildRow> {
+
+    private final List<TagInfo> tags = new ArrayList<>();
+    private final List<LanguageConfig> languages = new ArrayList<>();
+
+    @Override
+    public void handleResult(ResultContext<? extends DetailChildRow> context) {
+        add(context.getResultObject());
+    }
+
+    void add(DetailChildRow row) {
+        if (DetailChildRow.TAG.equals(row.kind())) {
+            tags.add(new TagInfo(row.refId(), row.name(), row.code()));
+        } else if (DetailChildRow.LANGUAGE.equals(row.kind())) {
+            languages.add(
+                    new LanguageConfig(
+                            row.refId() != null ? row.refId().intValue() : null,
+                            row.code(),
+                            row.name(),
+                            row.functionName(),
+                            row.starterCode()));
+        }
+    }
+
+    ProblemDetailResponse assemble(DetailHeadRow head, ProblemMetadata metadata) {
+        tags.sort(ProblemViews.TAG_ORDER);
+        languages.sort(ProblemViews.LANGUAGE_ORDER);
+        return new ProblemDetailResponse(
+                head.id(),
+                head.slug(),
+                head.title(),
+                head.descriptionMd(),
+                head.constraintsMd(),
+                head.examplesMd(),
+                head.difficultyCode() != null
+                        ? DifficultyInfo.of(head.difficultyId(), head.difficultyCode())
+                        : null,
+                new ProblemStats(head.timeLimitMs(), head.memoryLimitKb()),
+                metadata,
+                List.copyOf(tags),
+                List.copyOf(languages),
+                head.updatedAt());
+    }
+}
@@ -0,0 +1,201 @@
+package com.david.open.problem.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.open.problem.catalog.ReferenceData.LanguageRef;
+import com.david.open.problem.catalog.ReferenceDataRegistry;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemCardView;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.dto.ProblemCardView.ProblemStats;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.dto.ProblemDetailResponse;
+import com.david.open.problem.dto.ProblemDetailResponse.LanguageConfig;
+import com.david.open.problem.mapper.ProblemExportMapper;
+import com.david.open.problem.mapper.ProblemExportMapper.ExportRow;
+import com.david.open.problem.support.ProblemViews;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 以 NDJSON 流式导出全部公开题目，每行一个 {@link ProblemCardView} 或 {@link ProblemDetailResponse}。
+ *
+ * <p>按题目ID键集分页读取，每页是一条独立的短查询，逐行序列化后直接写入输出流；内存占用只与页大小有关，
+ * 连接也只在读取一页期间占用，慢速客户端不会长时间占住连接池。
+ */
+@Slf4j
+@Service
+public class ProblemExportService {
+
+    private final ProblemExportMapper problemExportMapper;
+    private final ReferenceDataRegistry referenceData;
+    private final ProblemMetadataParser metadataParser;
+    private final ObjectMapper objectMapper;
+    private final PublicProblemProperties properties;
+
+    public ProblemExportService(
+            ProblemExportMapper problemExportMapper,
+            ReferenceDataRegistry referenceData,
+            ProblemMetadataParser metadataParser,
+            ObjectMapper objectMapper,
+            PublicProblemProperties properties) {
+        this.problemExportMapper = problemExportMapper;
+        this.referenceData = referenceData;
+        this.metadataParser = metadataParser;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public enum View {
+        CARD,
+        DETAIL;
+
+        public static View parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CARD;
+            }
+            try {
+                return View.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "不支持的导出格式: " + value);
+            }
+        }
+    }
+
+    /**
+     * 将题目逐行写入 {@code out}，返回写出的行数。调用方负责关闭输出流。
+     *
+     * @param updatedSince 只导出此时间之后更新过的题目，为空时导出全部
+     */
+    public long export(View view, String langCode, LocalDateTime updatedSince, OutputStream out) {
+        List<String> languageOrder = ProblemViews.languagePreference(langCode);
+        boolean detail = view == View.DETAIL;
+        int pageSize = Math.max(properties.getExport().getPageSize(), 1);
+        long written = 0;
+        Long afterId = null;
+        try {
+            while (true) {
+                // 每页单独查询且不开启事务，写出（可能很慢）期间不持有数据库连接
+                List<ExportRow> page =
+                        problemExportMapper.selectPublishedPage(
+                                languageOrder, detail, updatedSince, afterId, pageSize);
+                for (ExportRow row : page) {
+                    Object line = toLine(view, row);
+                    if (line == null) {
+                        continue;
+                    }
+                    out.write(objectMapper.writeValueAsBytes(line));
+                    out.write('\n');
+                    written++;
+                }
+                out.flush();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("导出公开题目 {} 道 (view={}, updatedSince={})", written, view, updatedSince);
+        return written;
+    }
+
+    /** 把一行导出数据转换为输出对象；详情视图下缺少描述的题目返回 {@code null}，应跳过。 */
+    Object toLine(View view, ExportRow row) {
+        return view == View.DETAIL ? toDetail(row) : toCard(row);
+    }
+
+    private ProblemCardView toCard(ExportRow row) {
+        return new ProblemCardView(
+                row.id(),
+                row.slug(),
+                row.title() != null ? row.title() : row.slug(),
+                referenceData.difficulty(row.difficultyId()),
+                tags(row.tagIds()),
+                new ProblemStats(row.timeLimitMs(), row.memoryLimitKb()),
+                metadata(row),
+                row.updatedAt());
+    }
+
+    private ProblemDetailResponse toDetail(ExportRow row) {
+        if (row.title() == null && row.descriptionMd() == null) {
+            return null;
+        }
+        return new ProblemDetailResponse(
+                row.id(),
+                row.slug(),
+                row.title(),
+                row.descriptionMd(),
+                row.constraintsMd(),
+                row.examplesMd(),
+                referenceData.difficulty(row.difficultyId()),
+                new ProblemStats(row.timeLimitMs(), row.memoryLimitKb()),
+                metadata(row),
+                tags(row.tagIds()),
+                languages(row),
+                row.updatedAt());
+    }
+
+    private ProblemMetadata metadata(ExportRow row) {
+        return metadataParser.parse(row.id(), row.updatedAt(), row.metaJson());
+    }
+
+    private List<TagInfo> tags(String tagIds) {
+        if (tagIds == null || tagIds.isBlank()) {
+            return List.of();
+        }
+        List<TagInfo> tags = new ArrayList<>();
+        for (String id : tagIds.split(",")) {
+            TagInfo tag = referenceData.tag(Long.valueOf(id.trim()));
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+        tags.sort(ProblemViews.TAG_ORDER);
+        return tags;
+    }
+
+    private List<LanguageConfig> languages(ExportRow row) {
+        if (row.languagesJson() == null || row.languagesJson().isBlank()) {
+            return List.of();
+        }
+        try {
+            List<LanguageConfig> configs = new ArrayList<>();
+            for (JsonNode node : objectMapper.readTree(row.languagesJson())) {
+                Integer languageId =
+                        node.hasNonNull("languageId") ? node.get("languageId").asInt() : null;
+                LanguageRef lang = referenceData.language(languageId);
+                configs.add(
+                        new LanguageConfig(
+                                languageId,
+                                lang != null ? lang.code() : null,
+                                lang != null ? lang.displayName() : null,
+                                textOrNull(node, "functionName"),
+                                textOrNull(node, "starterCode")));
+            }
+            configs.sort(ProblemViews.LANGUAGE_ORDER);
+            return configs;
+        } catch (IOException e) {
+            log.warn("解析题目 {} 的语言配置失败: {}", row.id(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
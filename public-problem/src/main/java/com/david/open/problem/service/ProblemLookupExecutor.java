@@ -0,0 +1,75 @@
+package com.david.open.problem.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.metrics.QueryBytes;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 执行查询中互不依赖的查库步骤。
+ *
+ * <p>并发模式下每个步骤在独立线程、独立的只读事务中运行（各自占用一个连接），调用方不应在等待期间持有事务；
+ * 顺序模式下步骤直接在调用线程执行，沿用调用方已有的事务与连接。
+ */
+@Slf4j
+@Component
+public class ProblemLookupExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PublicProblemProperties.Lookups settings;
+
+    public ProblemLookupExecutor(
+            @Qualifier("problemLookupExecutor") ThreadPoolTaskExecutor executor,
+            PlatformTransactionManager transactionManager,
+            PublicProblemProperties properties) {
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.settings = properties.getLookups();
+    }
+
+    public boolean isParallel() {
+        return settings.isParallel();
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        if (!settings.isParallel()) {
+            return CompletableFuture.completedFuture(lookup.get());
+        }
+        Supplier<T> step = QueryBytes.propagate(lookup);
+        return CompletableFuture.supplyAsync(
+                        () -> readOnlyTransaction.execute(status -> step.get()), executor)
+                .orTimeout(settings.getStageTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public <T> T await(String stage, CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                log.warn("题目查询步骤 {} 超过 {} 未完成", stage, settings.getStageTimeout());
+                throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "题目数据加载超时，请稍后重试");
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.david.open.problem.service;
+
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从 {@code meta_json} 中提取题目元数据。
+ *
+ * <p>用流式解析器只读取顶层的五个字段，其余内容直接跳过，不构建 {@code JsonNode} 树；
+ * 结果按 (题目ID, {@code updated_at}) 缓存，题目未变更时同一份 JSON 只解析一次。
+ */
+@Slf4j
+@Component
+public class ProblemMetadataParser {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<MetadataKey, ProblemMetadata> cache;
+    private final Counter parseFailures;
+
+    public ProblemMetadataParser(
+            ObjectMapper objectMapper,
+            PublicProblemProperties properties,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(properties.getMetadata().getCacheSize())
+                        .recordStats()
+                        .build();
+        this.parseFailures =
+                Counter.builder("problem.metadata.parse")
+                        .tag("result", "failure")
+                        .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "problemMetadata");
+    }
+
+    public ProblemMetadata parse(Long problemId, LocalDateTime updatedAt, String metaJson) {
+        if (metaJson == null || metaJson.isBlank()) {
+            return ProblemMetadata.empty();
+        }
+        if (problemId == null || updatedAt == null) {
+            return extract(problemId, metaJson);
+        }
+        return cache.get(
+                new MetadataKey(problemId, updatedAt), key -> extract(problemId, metaJson));
+    }
+
+    public long failureCount() {
+        return (long) parseFailures.count();
+    }
+
+    private ProblemMetadata extract(Long problemId, String metaJson) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(metaJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return ProblemMetadata.empty();
+            }
+            List<String> companies = new ArrayList<>();
+            Double frequency = null;
+            Boolean paidOnly = null;
+            Integer frontendId = null;
+            Boolean leetcodeStyle = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "companies" -> {
+                        companies.clear();
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                                    companies.add(parser.getText());
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "frequency" ->
+                            frequency = value.isNumeric() ? parser.getDoubleValue() : null;
+                    case "paid_only" -> paidOnly = readBoolean(parser, value);
+                    case "leetcode_style" -> leetcodeStyle = readBoolean(parser, value);
+                    case "frontend_id" -> frontendId = readInt(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new ProblemMetadata(companies, frequency, paidOnly, frontendId, leetcodeStyle);
+        } catch (IOException | RuntimeException e) {
+            parseFailures.increment();
+            log.warn("解析题目 {} 的元数据失败: {}", problemId, e.getMessage());
+            return ProblemMetadata.empty();
+        }
+    }
+
+    private Boolean readBoolean(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_TRUE -> true;
+            case VALUE_FALSE -> false;
+            case VALUE_STRING -> Boolean.parseBoolean(parser.getText());
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getValueAsInt() != 0;
+            default -> {
+                parser.skipChildren();
+                yield null;
+            }
+        };
+    }
+
+    private Integer readInt(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return 0;
+        }
+        return parser.getValueAsInt();
+    }
+
+    private record MetadataKey(long problemId, LocalDateTime updatedAt) {}
+}
@@ -3,184 +3,811 @@ package com.david.open.problem.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.david.core.exception.BusinessException;
+import com.david.open.problem.cache.EncodedDetail;
+import com.david.open.problem.cache.EncodedDetailCache;
+import com.david.open.problem.cache.HotDetailCache;
+import com.david.open.problem.cache.ProblemDetailCache;
+import com.david.open.problem.cache.StarterCodeCache;
+import com.david.open.problem.catalog.CatalogOrderings;
+import com.david.open.problem.catalog.CatalogSnapshot;
+import com.david.open.problem.catalog.FacetIndex;
+import com.david.open.problem.catalog.ProblemCatalog;
+import com.david.open.problem.catalog.ProblemFacetIndex;
+import com.david.open.problem.catalog.ReferenceData.LanguageRef;
+import com.david.open.problem.catalog.ReferenceDataRegistry;
+import com.david.open.problem.catalog.SimilarProblemIndex;
+import com.david.open.problem.catalog.SimilarProblemIndex.Neighbor;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.config.PublicProblemProperties.DetailBatching;
 import com.david.open.problem.dto.ProblemCardView;
 import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
 import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
 import com.david.open.problem.dto.ProblemCardView.ProblemStats;
 import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.dto.ProblemBatchResponse;
 import com.david.open.problem.dto.ProblemDetailResponse;
 import com.david.open.problem.dto.ProblemDetailResponse.LanguageConfig;
+import com.david.open.problem.dto.ProblemFacets;
 import com.david.open.problem.dto.ProblemListResponse;
-import com.david.open.problem.entity.Difficulty;
-import com.david.open.problem.entity.Language;
+import com.david.open.problem.dto.ProblemSearchResponse;
+import com.david.open.problem.dto.SimilarProblemsResponse;
+import com.david.open.problem.dto.StarterCodeResponse;
 import com.david.open.problem.entity.Problem;
 import com.david.open.problem.entity.ProblemLanguageConfig;
 import com.david.open.problem.entity.ProblemStatement;
-import com.david.open.problem.mapper.DifficultyMapper;
-import com.david.open.problem.mapper.LanguageMapper;
-import com.david.open.problem.mapper.ProblemMapper;
+import com.david.open.problem.mapper.ProblemDetailMapper;
+import com.david.open.problem.mapper.ProblemDetailMapper.DetailHeadRow;
+import com.david.open.problem.mapper.ProblemDetailMapper.StarterCodeRow;
 import com.david.open.problem.mapper.ProblemLanguageConfigMapper;
+import com.david.open.problem.mapper.ProblemMapper;
+import com.david.open.problem.mapper.ProblemMapper.ProblemCardRow;
 import com.david.open.problem.mapper.ProblemStatementMapper;
+import com.david.open.problem.mapper.ProblemStatementMapper.StatementTitleRow;
 import com.david.open.problem.mapper.ProblemTagMapper;
 import com.david.open.problem.mapper.ProblemTagMapper.TagRelationRow;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.david.open.problem.readmodel.ProblemCardReadModel;
+import com.david.open.problem.search.ProblemSearchIndex;
+import com.david.open.problem.search.ProblemSearchIndex.SearchHits;
+import com.david.open.problem.support.DetailVersion;
+import com.david.open.problem.support.MicroBatcher;
+import com.david.open.problem.support.ProblemCursor;
+import com.david.open.problem.support.ProblemFilter;
+import com.david.open.problem.support.ProblemSort;
+import com.david.open.problem.support.ProblemViews;
+import com.david.open.problem.support.PublishedProblems;
+import com.david.open.problem.support.ResourceVersion;
+
+import jakarta.annotation.PreDestroy;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
-@Transactional(readOnly = true)
 public class ProblemQueryService {
 
-    private static final int MAX_PAGE_SIZE = 50;
-    private static final String DEFAULT_LANG = "zh-CN";
-    private static final List<String> FALLBACK_LANGS = List.of("zh-CN", "en");
+    static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+    static final int MAX_BATCH_SIZE = 50;
+    static final String STARTER_CODE_VARIANT = "code-";
 
     private final ProblemMapper problemMapper;
     private final ProblemStatementMapper problemStatementMapper;
-    private final DifficultyMapper difficultyMapper;
     private final ProblemTagMapper problemTagMapper;
     private final ProblemLanguageConfigMapper problemLanguageConfigMapper;
-    private final LanguageMapper languageMapper;
-    private final ObjectMapper objectMapper;
+    private final ProblemDetailMapper problemDetailMapper;
+    private final ProblemMetadataParser metadataParser;
+    private final PublishedProblemCounter publishedProblemCounter;
+    private final ProblemCatalog problemCatalog;
+    private final ProblemFacetIndex problemFacetIndex;
+    private final SimilarProblemIndex similarProblemIndex;
+    private final ProblemSearchIndex searchIndex;
+    private final ProblemCardReadModel problemCards;
+    private final ReferenceDataRegistry referenceData;
+    private final ProblemDetailCache problemDetailCache;
+    private final EncodedDetailCache encodedDetailCache;
+    private final StarterCodeCache starterCodeCache;
+    private final HotDetailCache hotDetailCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProblemLookupExecutor lookupExecutor;
+    private final PublicProblemProperties properties;
+    private final MicroBatcher<DetailKey, ProblemDetailResponse> detailBatcher;
 
     public ProblemQueryService(
             ProblemMapper problemMapper,
             ProblemStatementMapper problemStatementMapper,
-            DifficultyMapper difficultyMapper,
             ProblemTagMapper problemTagMapper,
             ProblemLanguageConfigMapper problemLanguageConfigMapper,
-            LanguageMapper languageMapper,
-            ObjectMapper objectMapper) {
+            ProblemDetailMapper problemDetailMapper,
+            ProblemMetadataParser metadataParser,
+            PublishedProblemCounter publishedProblemCounter,
+            ProblemCatalog problemCatalog,
+            ProblemFacetIndex problemFacetIndex,
+            SimilarProblemIndex similarProblemIndex,
+            ProblemSearchIndex searchIndex,
+            ProblemCardReadModel problemCards,
+            ReferenceDataRegistry referenceData,
+            ProblemDetailCache problemDetailCache,
+            EncodedDetailCache encodedDetailCache,
+            StarterCodeCache starterCodeCache,
+            HotDetailCache hotDetailCache,
+            PlatformTransactionManager transactionManager,
+            ProblemLookupExecutor lookupExecutor,
+            PublicProblemProperties properties) {
         this.problemMapper = problemMapper;
         this.problemStatementMapper = problemStatementMapper;
-        this.difficultyMapper = difficultyMapper;
         this.problemTagMapper = problemTagMapper;
         this.problemLanguageConfigMapper = problemLanguageConfigMapper;
-        this.languageMapper = languageMapper;
-        this.objectMapper = objectMapper;
+        this.problemDetailMapper = problemDetailMapper;
+        this.metadataParser = metadataParser;
+        this.publishedProblemCounter = publishedProblemCounter;
+        this.problemCatalog = problemCatalog;
+        this.problemFacetIndex = problemFacetIndex;
+        this.similarProblemIndex = similarProblemIndex;
+        this.searchIndex = searchIndex;
+        this.problemCards = problemCards;
+        this.referenceData = referenceData;
+        this.problemDetailCache = problemDetailCache;
+        this.encodedDetailCache = encodedDetailCache;
+        this.starterCodeCache = starterCodeCache;
+        this.hotDetailCache = hotDetailCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.lookupExecutor = lookupExecutor;
+        this.properties = properties;
+        DetailBatching batching = properties.getDetailBatching();
+        this.detailBatcher =
+                batching.isEnabled()
+                        ? new MicroBatcher<>(
+                                "problem-detail-batch",
+                                batching.getWindow(),
+                                Math.min(batching.getMaxBatchSize(), MAX_BATCH_SIZE),
+                                properties.getLookups().getStageTimeout(),
+                                batching.getThreads(),
+                                this::loadDetailBatch)
+                        : null;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (detailBatcher != null) {
+            detailBatcher.close();
+        }
+    }
+
+    /**
+     * 校验列表请求中与数据无关的参数（游标格式、游标与排序的组合），控制器在条件请求判定之前调用，
+     * 保证无效参数总是得到 400 而不是 304。
+     */
+    public void validateListRequest(String cursor, ProblemSort sort) {
+        parseCursor(cursor, sort != null ? sort : ProblemSort.DEFAULT);
     }
 
-    public ProblemListResponse listProblems(int page, int size, String langCode) {
+    public ProblemListResponse listProblems(
+            int page,
+            int size,
+            String langCode,
+            String cursor,
+            boolean exactTotal,
+            ProblemFilter filter,
+            boolean includeFacets,
+            ProblemSort sort) {
         int safePage = Math.max(page, 1);
         int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
-        int offset = (safePage - 1) * safeSize;
-        String normalizedLang = normalizeLang(langCode);
+        String normalizedLang = ProblemViews.normalizeLang(langCode);
+        ProblemFilter safeFilter = filter != null ? filter : ProblemFilter.NONE;
+        ProblemSort safeSort = sort != null ? sort : ProblemSort.DEFAULT;
+        ProblemCursor after = parseCursor(cursor, safeSort);
+        ProblemListResponse fromMemory =
+                listFromMemory(
+                        safePage,
+                        safeSize,
+                        normalizedLang,
+                        after,
+                        safeFilter,
+                        includeFacets,
+                        safeSort);
+        if (fromMemory != null) {
+            return fromMemory;
+        }
+        if (!safeFilter.isEmpty() || !safeSort.isDefault()) {
+            throw new BusinessException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "题目筛选与排序暂不可用，请稍后重试");
+        }
+        if (problemCards.isServing(normalizedLang)) {
+            return listFromReadModel(safePage, safeSize, normalizedLang, after, exactTotal);
+        }
+        return withReadOnlyTransaction(
+                () -> listFromDatabase(safePage, safeSize, normalizedLang, after, exactTotal));
+    }
+
+    /**
+     * 只用目录快照与筛选索引作答，目录不可用时返回 {@code null} 而不回源。是否可用只判断一次，
+     * 响应式部署据此在事件循环线程上调用，保证不会落到阻塞的数据库查询。
+     */
+    public ProblemListResponse listFromMemory(
+            int page,
+            int size,
+            String langCode,
+            String cursor,
+            ProblemFilter filter,
+            boolean includeFacets,
+            ProblemSort sort) {
+        ProblemSort safeSort = sort != null ? sort : ProblemSort.DEFAULT;
+        return listFromMemory(
+                Math.max(page, 1),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                ProblemViews.normalizeLang(langCode),
+                parseCursor(cursor, safeSort),
+                filter != null ? filter : ProblemFilter.NONE,
+                includeFacets,
+                safeSort);
+    }
 
-        LambdaQueryWrapper<Problem> countQuery = basePublishedProblemQuery();
-        long total = problemMapper.selectCount(countQuery);
-        if (total == 0) {
-            return new ProblemListResponse(0, safePage, safeSize, false, List.of());
+    private ProblemListResponse listFromMemory(
+            int safePage,
+            int safeSize,
+            String normalizedLang,
+            ProblemCursor after,
+            ProblemFilter safeFilter,
+            boolean includeFacets,
+            ProblemSort safeSort) {
+        if (!problemCatalog.isServing()) {
+            return null;
+        }
+        if (!safeSort.isDefault()) {
+            return listSorted(
+                    safePage, safeSize, normalizedLang, safeFilter, includeFacets, safeSort);
+        }
+        if (!safeFilter.isEmpty() || includeFacets) {
+            return listFromFacetIndex(
+                    safePage, safeSize, normalizedLang, after, safeFilter, includeFacets);
+        }
+        return listFromCatalog(safePage, safeSize, normalizedLang, after);
+    }
+
+    private ProblemListResponse listFromDatabase(
+            int safePage,
+            int safeSize,
+            String normalizedLang,
+            ProblemCursor after,
+            boolean exactTotal) {
+        long total;
+        if (exactTotal) {
+            LambdaQueryWrapper<Problem> countQuery = basePublishedProblemQuery();
+            total = problemMapper.selectCount(countQuery);
+            if (total == 0) {
+                return new ProblemListResponse(
+                        0, true, safePage, safeSize, false, List.of(), null, null);
+            }
+        } else {
+            total = publishedProblemCounter.approximateTotal();
         }
 
+        boolean probeNextRow = after != null || !exactTotal;
+        int limit = probeNextRow ? safeSize + 1 : safeSize;
         LambdaQueryWrapper<Problem> pageQuery =
-                basePublishedProblemQuery()
+                (after != null ? publishedProblemsAfter(after) : basePublishedProblemQuery())
                         .orderByDesc(Problem::getUpdatedAt)
-                        .last("LIMIT " + safeSize + " OFFSET " + offset);
-        List<Problem> problems = problemMapper.selectList(pageQuery);
+                        .orderByDesc(Problem::getId);
+        if (after != null) {
+            pageQuery.last("LIMIT " + limit);
+        } else {
+            int offset = (safePage - 1) * safeSize;
+            pageQuery.last("LIMIT " + limit + " OFFSET " + offset);
+        }
+        List<ProblemCardRow> problems = problemMapper.selectCardRows(pageQuery);
+
+        boolean hasMore;
+        if (probeNextRow) {
+            hasMore = problems.size() > safeSize;
+            if (hasMore) {
+                problems = problems.subList(0, safeSize);
+            }
+        } else {
+            hasMore = (long) safePage * safeSize < total;
+        }
         if (problems.isEmpty()) {
-            return new ProblemListResponse(total, safePage, safeSize, false, List.of());
+            return new ProblemListResponse(
+                    total, exactTotal, safePage, safeSize, false, List.of(), null, null);
         }
 
-        List<Long> problemIds = problems.stream().map(Problem::getId).toList();
-        Map<Long, ProblemStatement> statements = loadStatements(problemIds, normalizedLang);
-        Map<Integer, Difficulty> difficultyMap =
-                loadDifficulties(
-                        problems.stream()
-                                .map(Problem::getDifficultyId)
-                                .collect(Collectors.toSet()));
-        Map<Long, List<TagInfo>> tagsByProblem = loadTags(problemIds);
+        List<ProblemCardView> items = toViews(problems, normalizedLang);
+        ProblemCardRow last = problems.get(problems.size() - 1);
+        String nextCursor =
+                hasMore ? new ProblemCursor(last.updatedAt(), last.id()).encode() : null;
+        return new ProblemListResponse(
+                total, exactTotal, safePage, safeSize, hasMore, items, nextCursor, null);
+    }
 
+    /** 从持久化卡片表分页，一页只需一条索引查询，标题、标签与元数据均已展开。 */
+    private ProblemListResponse listFromReadModel(
+            int safePage,
+            int safeSize,
+            String normalizedLang,
+            ProblemCursor after,
+            boolean exactTotal) {
+        long total;
+        if (exactTotal) {
+            total = problemCards.count(normalizedLang);
+            if (total == 0) {
+                return new ProblemListResponse(
+                        0, true, safePage, safeSize, false, List.of(), null, null);
+            }
+        } else {
+            total = publishedProblemCounter.approximateTotal();
+        }
+
+        boolean probeNextRow = after != null || !exactTotal;
+        int limit = probeNextRow ? safeSize + 1 : safeSize;
         List<ProblemCardView> items =
-                problems.stream()
-                        .map(
-                                problem ->
-                                        toView(
-                                                problem,
-                                                statements.get(problem.getId()),
-                                                difficultyMap.get(problem.getDifficultyId()),
-                                                tagsByProblem.getOrDefault(
-                                                        problem.getId(), List.of())))
-                        .toList();
+                problemCards.page(
+                        normalizedLang, after, limit, (long) (safePage - 1) * safeSize);
+
+        boolean hasMore;
+        if (probeNextRow) {
+            hasMore = items.size() > safeSize;
+            if (hasMore) {
+                items = items.subList(0, safeSize);
+            }
+        } else {
+            hasMore = (long) safePage * safeSize < total;
+        }
+        if (items.isEmpty()) {
+            return new ProblemListResponse(
+                    total, exactTotal, safePage, safeSize, false, List.of(), null, null);
+        }
 
-        boolean hasMore = (long) safePage * safeSize < total;
-        return new ProblemListResponse(total, safePage, safeSize, hasMore, items);
+        ProblemCardView last = items.get(items.size() - 1);
+        String nextCursor =
+                hasMore ? new ProblemCursor(last.updatedAt(), last.id()).encode() : null;
+        return new ProblemListResponse(
+                total, exactTotal, safePage, safeSize, hasMore, items, nextCursor, null);
     }
 
-    public ProblemDetailResponse getProblemDetail(String slug, String langCode) {
-        if (slug == null || slug.isBlank()) {
+    private ProblemListResponse listFromCatalog(
+            int page, int size, String normalizedLang, ProblemCursor after) {
+        CatalogSnapshot snapshot = problemCatalog.snapshot();
+        int total = snapshot.size();
+        int start =
+                after != null
+                        ? snapshot.seekAfter(after)
+                        : (int) Math.min((long) (page - 1) * size, total);
+        int end = Math.min(start + size, total);
+        List<String> languageOrder = ProblemViews.languagePreference(normalizedLang);
+
+        List<ProblemCardView> items = new ArrayList<>(end - start);
+        for (int ordinal = start; ordinal < end; ordinal++) {
+            items.add(snapshot.card(ordinal, languageOrder));
+        }
+        boolean hasMore = end < total;
+        String nextCursor = hasMore && end > start ? snapshot.cursorAt(end - 1).encode() : null;
+        return new ProblemListResponse(total, true, page, size, hasMore, items, nextCursor, null);
+    }
+
+    /** 按预排序结果分页；有筛选条件时在该排序的名次空间求交，按秩定位到页首后顺序读取。 */
+    private ProblemListResponse listSorted(
+            int page,
+            int size,
+            String normalizedLang,
+            ProblemFilter filter,
+            boolean includeFacets,
+            ProblemSort sort) {
+        FacetIndex index = problemFacetIndex.current();
+        CatalogSnapshot snapshot = index.snapshot();
+        CatalogOrderings orderings = index.orderings();
+        RoaringBitmap ranks = filter.isEmpty() ? null : index.matchRanks(filter, sort);
+        int total = ranks != null ? ranks.getCardinality() : snapshot.size();
+        int start = (int) Math.min((long) (page - 1) * size, total);
+        int end = Math.min(start + size, total);
+
+        PeekableIntIterator positions = null;
+        if (ranks != null && start < end) {
+            positions = ranks.getIntIterator();
+            positions.advanceIfNeeded(ranks.select(start));
+        }
+        List<String> languageOrder = ProblemViews.languagePreference(normalizedLang);
+        List<ProblemCardView> items = new ArrayList<>(end - start);
+        for (int slot = start; slot < end; slot++) {
+            int position = positions != null ? positions.next() : slot;
+            items.add(snapshot.card(orderings.ordinalAt(sort, position), languageOrder));
+        }
+        boolean hasMore = end < total;
+        ProblemFacets facets =
+                includeFacets ? index.facets(filter, properties.getFacets().getMaxValues()) : null;
+        return new ProblemListResponse(total, true, page, size, hasMore, items, null, facets);
+    }
+
+    private ProblemListResponse listFromFacetIndex(
+            int page,
+            int size,
+            String normalizedLang,
+            ProblemCursor after,
+            ProblemFilter filter,
+            boolean includeFacets) {
+        FacetIndex index = problemFacetIndex.current();
+        CatalogSnapshot snapshot = index.snapshot();
+        RoaringBitmap matched = index.match(filter);
+        int total = matched.getCardinality();
+
+        PeekableIntIterator ordinals = matched.getIntIterator();
+        if (after != null) {
+            ordinals.advanceIfNeeded(snapshot.seekAfter(after));
+        } else {
+            long offset = (long) (page - 1) * size;
+            if (offset >= total) {
+                ordinals = null;
+            } else if (offset > 0) {
+                ordinals.advanceIfNeeded(matched.select((int) offset));
+            }
+        }
+
+        List<String> languageOrder = ProblemViews.languagePreference(normalizedLang);
+        List<ProblemCardView> items = new ArrayList<>(size);
+        int last = -1;
+        while (ordinals != null && ordinals.hasNext() && items.size() < size) {
+            last = ordinals.next();
+            items.add(snapshot.card(last, languageOrder));
+        }
+        boolean hasMore = ordinals != null && ordinals.hasNext();
+        String nextCursor = hasMore && last >= 0 ? snapshot.cursorAt(last).encode() : null;
+        ProblemFacets facets =
+                includeFacets ? index.facets(filter, properties.getFacets().getMaxValues()) : null;
+        return new ProblemListResponse(total, true, page, size, hasMore, items, nextCursor, facets);
+    }
+
+    public ProblemSearchResponse searchProblems(
+            String query, int page, int size, String langCode, boolean prefix) {
+        String keyword = query != null ? query.trim() : "";
+        if (keyword.isEmpty()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "搜索关键词不能为空");
+        }
+        if (keyword.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "搜索关键词过长");
+        }
+        if (!properties.getSearch().isEnabled()
+                || !problemCatalog.isServing()
+                || !searchIndex.isReady()) {
+            throw new BusinessException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "题目搜索暂不可用，请稍后重试");
+        }
+        int safePage = Math.max(page, 1);
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long window = (long) safePage * safeSize + 1;
+        int limit = (int) Math.min(window, properties.getSearch().getMaxResultWindow());
+
+        SearchHits hits = searchIndex.search(keyword, prefix, limit);
+        CatalogSnapshot snapshot = problemCatalog.snapshot();
+        List<String> languageOrder =
+                ProblemViews.languagePreference(ProblemViews.normalizeLang(langCode));
+        List<Long> ids = hits.problemIds();
+        int start = Math.min((safePage - 1) * safeSize, ids.size());
+        int end = Math.min(start + safeSize, ids.size());
+        List<ProblemCardView> items = new ArrayList<>(end - start);
+        for (Long id : ids.subList(start, end)) {
+            int ordinal = snapshot.ordinalOf(id);
+            if (ordinal >= 0) {
+                items.add(snapshot.card(ordinal, languageOrder));
+            }
+        }
+        boolean hasMore = ids.size() > end;
+        return new ProblemSearchResponse(
+                keyword, hits.total(), hits.totalExact(), safePage, safeSize, hasMore, items);
+    }
+
+    /** 从满足筛选条件的公开题目中等概率随机抽取一道，数据来自内存目录与筛选索引。 */
+    public ProblemCardView randomProblem(ProblemFilter filter, String langCode) {
+        if (!problemCatalog.isServing()) {
+            throw new BusinessException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "随机选题暂不可用，请稍后重试");
+        }
+        FacetIndex index = problemFacetIndex.current();
+        int ordinal = index.sample(filter, ThreadLocalRandom.current());
+        if (ordinal < 0) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "没有符合条件的题目");
+        }
+        return index.snapshot()
+                .card(
+                        ordinal,
+                        ProblemViews.languagePreference(ProblemViews.normalizeLang(langCode)));
+    }
+
+    /** 与给定题目最相似的公开题目，读取预先计算的 top-K 表，不在请求内做两两比较。 */
+    public SimilarProblemsResponse similarProblems(String slug, int limit, String langCode) {
+        String normalizedSlug = normalizeSlug(slug);
+        if (!problemCatalog.isServing()) {
+            throw new BusinessException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "相似题目暂不可用，请稍后重试");
+        }
+        CatalogSnapshot snapshot = problemCatalog.snapshot();
+        int ordinal = snapshot.ordinalOf(normalizedSlug);
+        if (ordinal < 0) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "题目不存在或尚未公开");
+        }
+        int safeLimit = Math.min(Math.max(limit, 1), similarProblemIndex.maxResults());
+        List<String> languageOrder =
+                ProblemViews.languagePreference(ProblemViews.normalizeLang(langCode));
+        List<SimilarProblemsResponse.Item> items = new ArrayList<>(safeLimit);
+        for (Neighbor neighbor : similarProblemIndex.similarTo(snapshot.id(ordinal), safeLimit)) {
+            int other = snapshot.ordinalOf(neighbor.problemId());
+            if (other >= 0) {
+                items.add(
+                        new SimilarProblemsResponse.Item(
+                                neighbor.score(), snapshot.card(other, languageOrder)));
+            }
+        }
+        return new SimilarProblemsResponse(normalizedSlug, items);
+    }
+
+    /**
+     * 批量获取题目详情：先用一次 IN 查询取出题目行并按版本命中详情缓存，其余题目的描述、标签与语言配置
+     * 各用一次 IN 查询补齐。不存在、未公开或缺少描述的题目以未找到标记返回。
+     */
+    public ProblemBatchResponse getProblemDetails(List<String> slugs, String langCode) {
+        LinkedHashSet<String> normalizedSlugs = new LinkedHashSet<>();
+        if (slugs != null) {
+            for (String slug : slugs) {
+                if (slug != null && !slug.isBlank()) {
+                    normalizedSlugs.add(slug.trim());
+                }
+            }
+        }
+        if (normalizedSlugs.isEmpty()) {
             throw new BusinessException(HttpStatus.BAD_REQUEST, "题目标识不能为空");
         }
-        String normalizedSlug = slug.trim();
-        String normalizedLang = normalizeLang(langCode);
+        if (normalizedSlugs.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(
+                    HttpStatus.BAD_REQUEST, "单次最多查询" + MAX_BATCH_SIZE + "道题目");
+        }
+        String normalizedLang = ProblemViews.normalizeLang(langCode);
+        Map<String, ProblemDetailResponse> details =
+                withReadOnlyTransaction(() -> loadProblemDetails(normalizedSlugs, normalizedLang));
+
+        List<ProblemBatchResponse.Item> items = new ArrayList<>(normalizedSlugs.size());
+        for (String slug : normalizedSlugs) {
+            ProblemDetailResponse detail = details.get(slug);
+            items.add(
+                    detail != null
+                            ? ProblemBatchResponse.Item.found(slug, detail)
+                            : ProblemBatchResponse.Item.notFound(slug));
+        }
+        return new ProblemBatchResponse(normalizedLang, items);
+    }
+
+    private Map<String, ProblemDetailResponse> loadProblemDetails(
+            Collection<String> slugs, String normalizedLang) {
+        List<Problem> problems =
+                problemMapper.selectList(basePublishedProblemQuery().in(Problem::getSlug, slugs));
+        Map<String, ProblemDetailResponse> details = new HashMap<>();
+        List<Problem> misses = new ArrayList<>();
+        for (Problem problem : problems) {
+            ProblemDetailResponse cached =
+                    problemDetailCache.getIfCurrent(
+                            problem.getSlug(), normalizedLang, problem.getUpdatedAt());
+            if (cached != null) {
+                details.put(problem.getSlug(), cached);
+            } else {
+                misses.add(problem);
+            }
+        }
+        if (misses.isEmpty()) {
+            return details;
+        }
+
+        List<Long> problemIds = misses.stream().map(Problem::getId).toList();
+        CompletableFuture<Map<Long, ProblemStatement>> statementLookup =
+                lookupExecutor.submit(() -> loadStatements(problemIds, normalizedLang));
+        CompletableFuture<Map<Long, List<TagInfo>>> tagLookup =
+                lookupExecutor.submit(() -> loadTags(problemIds));
+        CompletableFuture<Map<Long, List<LanguageConfig>>> languageLookup =
+                lookupExecutor.submit(() -> loadLanguageConfigs(problemIds));
+        Map<Long, ProblemStatement> statements = lookupExecutor.await("statements", statementLookup);
+        Map<Long, List<TagInfo>> tagsByProblem = lookupExecutor.await("tags", tagLookup);
+        Map<Long, List<LanguageConfig>> languagesByProblem =
+                lookupExecutor.await("languages", languageLookup);
+
+        for (Problem problem : misses) {
+            ProblemStatement statement = statements.get(problem.getId());
+            if (statement == null) {
+                continue;
+            }
+            ProblemDetailResponse detail =
+                    toDetail(
+                            problem,
+                            statement,
+                            tagsByProblem.getOrDefault(problem.getId(), List.of()),
+                            languagesByProblem.getOrDefault(problem.getId(), List.of()));
+            problemDetailCache.put(
+                    problem.getSlug(), normalizedLang, problem.getUpdatedAt(), detail);
+            details.put(problem.getSlug(), detail);
+        }
+        return details;
+    }
+
+    /** 列表响应的版本，仅在内存目录承接查询时可用。 */
+    public ResourceVersion listVersion() {
+        if (!problemCatalog.isServing()) {
+            return null;
+        }
+        CatalogSnapshot snapshot = problemCatalog.snapshot();
+        return ResourceVersion.ofCatalog(snapshot.fingerprint(), snapshot.builtAt());
+    }
+
+    /** 只解析题目版本，不加载描述、标签与语言配置，供条件请求提前判定。 */
+    public DetailVersion resolveDetailVersion(String slug, String langCode) {
+        return resolveDetailVersion(slug, langCode, false);
+    }
+
+    /**
+     * @param slim 精简模式，语言配置只返回语言ID与名称，起始代码通过 {@link #getStarterCode} 按需获取
+     */
+    public DetailVersion resolveDetailVersion(String slug, String langCode, boolean slim) {
+        String normalizedSlug = normalizeSlug(slug);
+        return new DetailVersion(
+                normalizedSlug,
+                ProblemViews.normalizeLang(langCode),
+                slim,
+                currentVersion(normalizedSlug));
+    }
+
+    public ProblemDetailResponse getProblemDetail(String slug, String langCode) {
+        return getProblemDetail(resolveDetailVersion(slug, langCode));
+    }
+
+    /** 单个编程语言起始代码的版本，随题目更新时间变化；题目版本未知时返回 {@code null}。 */
+    public ResourceVersion starterCodeVersion(String slug, String languageCode) {
+        LocalDateTime updatedAt = currentVersion(normalizeSlug(slug));
+        return updatedAt != null
+                ? ResourceVersion.ofProblem(
+                        updatedAt, STARTER_CODE_VARIANT + normalizeLanguageCode(languageCode))
+                : null;
+    }
+
+    public StarterCodeResponse getStarterCode(String slug, String languageCode) {
+        String normalizedSlug = normalizeSlug(slug);
+        String normalizedLanguage = normalizeLanguageCode(languageCode);
+        return starterCodeCache.get(
+                normalizedSlug,
+                normalizedLanguage,
+                currentVersion(normalizedSlug),
+                () -> loadStarterCode(normalizedSlug, normalizedLanguage));
+    }
+
+    /** 返回已序列化（必要时已压缩）的详情响应字节，热门题目直接命中常驻响应。 */
+    public EncodedDetail getEncodedProblemDetail(DetailVersion version) {
+        hotDetailCache.record(version);
+        EncodedDetail pinned = hotDetailCache.getIfCurrent(version);
+        if (pinned != null) {
+            return pinned;
+        }
+        EncodedDetail encoded = encodeProblemDetail(version);
+        hotDetailCache.pinIfHot(version, encoded);
+        return encoded;
+    }
+
+    /** 生成或从字节缓存取出详情响应，不计入访问频率，供热门详情的后台刷新使用。 */
+    public EncodedDetail encodeProblemDetail(DetailVersion version) {
+        return encodedDetailCache.get(version, () -> getProblemDetail(version));
+    }
 
-        Problem problem =
+    public ProblemDetailResponse getProblemDetail(DetailVersion version) {
+        return problemDetailCache.get(
+                version.slug(),
+                version.variant(),
+                version.updatedAt(),
+                () -> {
+                    if (detailBatcher != null && !version.slim()) {
+                        return loadBatched(version);
+                    }
+                    return withReadOnlyTransaction(
+                            () ->
+                                    loadProblemDetail(
+                                            version.slug(), version.lang(), version.slim()));
+                });
+    }
+
+    /** 缓存未命中的完整详情交给合并加载器，与同一时间窗口内的其它题目一起回源。 */
+    private ProblemDetailResponse loadBatched(DetailVersion version) {
+        DetailKey key = new DetailKey(version.slug(), version.lang());
+        ProblemDetailResponse detail = lookupExecutor.await("detail", detailBatcher.load(key));
+        if (detail == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "题目不存在或尚未公开");
+        }
+        return detail;
+    }
+
+    private Map<DetailKey, ProblemDetailResponse> loadDetailBatch(Set<DetailKey> keys) {
+        Map<String, List<String>> slugsByLang = new LinkedHashMap<>();
+        for (DetailKey key : keys) {
+            slugsByLang.computeIfAbsent(key.lang(), ignored -> new ArrayList<>()).add(key.slug());
+        }
+        Map<DetailKey, ProblemDetailResponse> result = new HashMap<>();
+        slugsByLang.forEach(
+                (lang, slugs) ->
+                        withReadOnlyTransaction(() -> loadProblemDetails(slugs, lang))
+                                .forEach(
+                                        (slug, detail) ->
+                                                result.put(new DetailKey(slug, lang), detail)));
+        return result;
+    }
+
+    private record DetailKey(String slug, String lang) {}
+
+    private LocalDateTime currentVersion(String slug) {
+        if (problemCatalog.isServing()) {
+            CatalogSnapshot snapshot = problemCatalog.snapshot();
+            int ordinal = snapshot.ordinalOf(slug);
+            return ordinal >= 0 ? snapshot.updatedAt(ordinal) : null;
+        }
+        Problem version =
                 problemMapper.selectOne(
-                        basePublishedProblemQuery().eq(Problem::getSlug, normalizedSlug));
-        if (problem == null) {
+                        basePublishedProblemQuery()
+                                .select(Problem::getId, Problem::getUpdatedAt)
+                                .eq(Problem::getSlug, slug));
+        if (version == null) {
             throw new BusinessException(HttpStatus.NOT_FOUND, "题目不存在或尚未公开");
         }
+        return version.getUpdatedAt();
+    }
 
-        ProblemStatement statement =
-                loadStatements(List.of(problem.getId()), normalizedLang).get(problem.getId());
-        if (statement == null) {
+    private ProblemDetailResponse loadProblemDetail(
+            String normalizedSlug, String normalizedLang, boolean slim) {
+        DetailHeadRow head =
+                problemDetailMapper.selectPublishedDetailHead(
+                        normalizedSlug, ProblemViews.languagePreference(normalizedLang));
+        if (head == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "题目不存在或尚未公开");
+        }
+        if (head.langCode() == null) {
             throw new BusinessException(HttpStatus.NOT_FOUND, "题目描述暂不可用");
         }
 
-        Difficulty difficulty =
-                problem.getDifficultyId() == null
-                        ? null
-                        : difficultyMapper.selectById(problem.getDifficultyId());
-        List<TagInfo> tags = loadTags(List.of(problem.getId())).getOrDefault(problem.getId(), List.of());
-        DifficultyInfo difficultyInfo =
-                difficulty == null
-                        ? null
-                        : new DifficultyInfo(
-                                difficulty.getId(),
-                                difficulty.getCode(),
-                                difficultyLabel(difficulty.getCode()));
+        ProblemDetailAssembler assembler = new ProblemDetailAssembler();
+        problemDetailMapper.selectDetailChildren(head.id(), !slim, assembler);
+        ProblemMetadata metadata =
+                metadataParser.parse(head.id(), head.updatedAt(), head.metaJson());
+        return assembler.assemble(head, metadata);
+    }
 
-        ProblemStats stats = new ProblemStats(problem.getTimeLimitMs(), problem.getMemoryLimitKb());
-        ProblemMetadata metadata = parseMetadata(problem.getId(), problem.getMetaJson());
-        List<LanguageConfig> languageConfigs = loadLanguageConfigs(problem.getId());
+    private StarterCodeResponse loadStarterCode(String normalizedSlug, String languageCode) {
+        StarterCodeRow row =
+                problemDetailMapper.selectPublishedStarterCode(normalizedSlug, languageCode);
+        if (row == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "题目不存在或未配置该编程语言");
+        }
+        return new StarterCodeResponse(
+                row.problemId(),
+                row.slug(),
+                row.languageId(),
+                row.languageCode(),
+                row.languageName(),
+                row.functionName(),
+                row.starterCode(),
+                row.updatedAt());
+    }
 
-        return new ProblemDetailResponse(
-                problem.getId(),
-                problem.getSlug(),
-                statement.getTitle(),
-                statement.getDescriptionMd(),
-                statement.getConstraintsMd(),
-                statement.getExamplesMd(),
-                difficultyInfo,
-                stats,
-                metadata,
-                tags,
-                languageConfigs,
-                problem.getUpdatedAt());
+    /** 并发模式下各查询步骤自带只读事务，这里不再额外占用连接。 */
+    private <T> T withReadOnlyTransaction(Supplier<T> action) {
+        if (lookupExecutor.isParallel()) {
+            return action.get();
+        }
+        return readOnlyTransaction.execute(status -> action.get());
     }
 
     private LambdaQueryWrapper<Problem> basePublishedProblemQuery() {
-        return Wrappers.lambdaQuery(Problem.class)
-                .eq(Problem::getIsPublic, 1)
-                .eq(Problem::getLifecycleStatus, "published")
-                .eq(Problem::getReviewStatus, "approved");
+        return PublishedProblems.query();
+    }
+
+    private LambdaQueryWrapper<Problem> publishedProblemsAfter(ProblemCursor cursor) {
+        return basePublishedProblemQuery()
+                .and(
+                        wrapper ->
+                                wrapper.lt(Problem::getUpdatedAt, cursor.updatedAt())
+                                        .or(
+                                                tie ->
+                                                        tie.eq(Problem::getUpdatedAt, cursor.updatedAt())
+                                                                .lt(Problem::getId, cursor.id())));
     }
 
     private Map<Long, ProblemStatement> loadStatements(
@@ -188,26 +815,70 @@ public class ProblemQueryService {
         if (problemIds.isEmpty()) {
             return Map.of();
         }
-        List<String> languageOrder = buildLanguagePreference(preferredLang);
+        List<String> languageOrder = ProblemViews.languagePreference(preferredLang);
         LambdaQueryWrapper<ProblemStatement> statementQuery =
                 Wrappers.lambdaQuery(ProblemStatement.class)
                         .in(ProblemStatement::getProblemId, problemIds)
                         .in(ProblemStatement::getLangCode, languageOrder);
-        List<ProblemStatement> statements = problemStatementMapper.selectList(statementQuery);
-        Map<Long, Map<String, ProblemStatement>> grouped = new LinkedHashMap<>();
-        for (ProblemStatement statement : statements) {
-            grouped.computeIfAbsent(statement.getProblemId(), ignored -> new LinkedHashMap<>())
-                    .put(statement.getLangCode(), statement);
+        return resolvePreferred(
+                problemIds,
+                problemStatementMapper.selectList(statementQuery),
+                ProblemStatement::getProblemId,
+                ProblemStatement::getLangCode,
+                languageOrder);
+    }
+
+    /** 列表只需要标题，按语言偏好为每道题挑选一个标题，不读取正文列。 */
+    private Map<Long, String> loadTitles(Collection<Long> problemIds, String preferredLang) {
+        if (problemIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> languageOrder = ProblemViews.languagePreference(preferredLang);
+        return titlesOf(
+                problemIds,
+                problemStatementMapper.selectTitles(problemIds, languageOrder),
+                languageOrder);
+    }
+
+    static Map<Long, String> titlesOf(
+            Collection<Long> problemIds, List<StatementTitleRow> rows, List<String> languageOrder) {
+        Map<Long, StatementTitleRow> resolved =
+                resolvePreferred(
+                        problemIds,
+                        rows,
+                        StatementTitleRow::problemId,
+                        StatementTitleRow::langCode,
+                        languageOrder);
+        Map<Long, String> titles = new HashMap<>();
+        resolved.forEach(
+                (problemId, row) -> {
+                    if (row.title() != null) {
+                        titles.put(problemId, row.title());
+                    }
+                });
+        return titles;
+    }
+
+    private static <T> Map<Long, T> resolvePreferred(
+            Collection<Long> problemIds,
+            List<T> rows,
+            Function<T, Long> problemIdOf,
+            Function<T, String> langOf,
+            List<String> languageOrder) {
+        Map<Long, Map<String, T>> grouped = new LinkedHashMap<>();
+        for (T row : rows) {
+            grouped.computeIfAbsent(problemIdOf.apply(row), ignored -> new LinkedHashMap<>())
+                    .put(langOf.apply(row), row);
         }
 
-        Map<Long, ProblemStatement> resolved = new LinkedHashMap<>();
+        Map<Long, T> resolved = new LinkedHashMap<>();
         for (Long problemId : problemIds) {
-            Map<String, ProblemStatement> candidates = grouped.get(problemId);
+            Map<String, T> candidates = grouped.get(problemId);
             if (candidates == null || candidates.isEmpty()) {
                 continue;
             }
             for (String lang : languageOrder) {
-                ProblemStatement preferred = candidates.get(lang);
+                T preferred = candidates.get(lang);
                 if (preferred != null) {
                     resolved.put(problemId, preferred);
                     break;
@@ -220,171 +891,133 @@ public class ProblemQueryService {
         return resolved;
     }
 
-    private Map<Integer, Difficulty> loadDifficulties(Set<Integer> difficultyIds) {
-        if (difficultyIds == null || difficultyIds.isEmpty()) {
-            return Map.of();
-        }
-        return difficultyMapper.selectBatchIds(difficultyIds).stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toMap(Difficulty::getId, Function.identity()));
-    }
-
     private Map<Long, List<TagInfo>> loadTags(Collection<Long> problemIds) {
         if (problemIds.isEmpty()) {
             return Map.of();
         }
-        List<TagRelationRow> rows = problemTagMapper.selectTagsForProblems(problemIds);
+        return tagsOf(problemTagMapper.selectTagIdsForProblems(problemIds));
+    }
+
+    Map<Long, List<TagInfo>> tagsOf(List<TagRelationRow> rows) {
         Map<Long, List<TagInfo>> result = new LinkedHashMap<>();
         for (TagRelationRow row : rows) {
-            result.computeIfAbsent(row.problemId(), key -> new ArrayList<>())
-                    .add(new TagInfo(row.tagId(), row.name(), row.slug()));
+            TagInfo tag = referenceData.tag(row.tagId());
+            if (tag != null) {
+                result.computeIfAbsent(row.problemId(), key -> new ArrayList<>()).add(tag);
+            }
         }
+        result.values().forEach(tags -> tags.sort(ProblemViews.TAG_ORDER));
         return result;
     }
 
-    private List<LanguageConfig> loadLanguageConfigs(Long problemId) {
+    private Map<Long, List<LanguageConfig>> loadLanguageConfigs(Collection<Long> problemIds) {
+        if (problemIds.isEmpty()) {
+            return Map.of();
+        }
         List<ProblemLanguageConfig> configs =
                 problemLanguageConfigMapper.selectList(
                         Wrappers.lambdaQuery(ProblemLanguageConfig.class)
-                                .eq(ProblemLanguageConfig::getProblemId, problemId));
-        if (configs.isEmpty()) {
-            return List.of();
-        }
-
-        Set<Integer> languageIds =
-                configs.stream()
-                        .map(ProblemLanguageConfig::getLanguageId)
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toSet());
-        Map<Integer, Language> languageMap =
-                languageIds.isEmpty()
-                        ? Map.of()
-                        : languageMapper.selectBatchIds(languageIds).stream()
-                                .filter(Objects::nonNull)
-                                .collect(Collectors.toMap(Language::getId, Function.identity()));
-
-        return configs.stream()
-                .map(
-                        cfg -> {
-                            Language lang = languageMap.get(cfg.getLanguageId());
-                            return new LanguageConfig(
-                                    cfg.getLanguageId(),
-                                    lang != null ? lang.getCode() : null,
-                                    lang != null ? lang.getDisplayName() : null,
-                                    cfg.getFunctionName(),
-                                    cfg.getStarterCode());
-                        })
-                .sorted(
-                        (a, b) -> {
-                            String left = a.languageName() != null ? a.languageName() : "";
-                            String right = b.languageName() != null ? b.languageName() : "";
-                            return left.compareToIgnoreCase(right);
-                        })
-                .toList();
+                                .in(ProblemLanguageConfig::getProblemId, problemIds));
+        Map<Long, List<LanguageConfig>> result = new HashMap<>();
+        for (ProblemLanguageConfig config : configs) {
+            LanguageRef lang = referenceData.language(config.getLanguageId());
+            result.computeIfAbsent(config.getProblemId(), key -> new ArrayList<>())
+                    .add(
+                            new LanguageConfig(
+                                    config.getLanguageId(),
+                                    lang != null ? lang.code() : null,
+                                    lang != null ? lang.displayName() : null,
+                                    config.getFunctionName(),
+                                    config.getStarterCode()));
+        }
+        result.values().forEach(languages -> languages.sort(ProblemViews.LANGUAGE_ORDER));
+        return result;
     }
 
-    private ProblemCardView toView(
+    private ProblemDetailResponse toDetail(
             Problem problem,
             ProblemStatement statement,
-            Difficulty difficulty,
-            List<TagInfo> tags) {
-        String title =
-                statement != null && statement.getTitle() != null
-                        ? statement.getTitle()
-                        : problem.getSlug();
-        DifficultyInfo difficultyInfo =
-                difficulty == null
-                        ? null
-                        : new DifficultyInfo(
-                                difficulty.getId(),
-                                difficulty.getCode(),
-                                difficultyLabel(difficulty.getCode()));
-
-        ProblemMetadata metadata = parseMetadata(problem.getId(), problem.getMetaJson());
-        ProblemStats stats = new ProblemStats(problem.getTimeLimitMs(), problem.getMemoryLimitKb());
-        LocalDateTime updatedAt = problem.getUpdatedAt();
-
-        return new ProblemCardView(
+            List<TagInfo> tags,
+            List<LanguageConfig> languageConfigs) {
+        return new ProblemDetailResponse(
                 problem.getId(),
                 problem.getSlug(),
-                title,
-                difficultyInfo,
+                statement.getTitle(),
+                statement.getDescriptionMd(),
+                statement.getConstraintsMd(),
+                statement.getExamplesMd(),
+                referenceData.difficulty(problem.getDifficultyId()),
+                new ProblemStats(problem.getTimeLimitMs(), problem.getMemoryLimitKb()),
+                metadataParser.parse(
+                        problem.getId(), problem.getUpdatedAt(), problem.getMetaJson()),
                 tags,
-                stats,
-                metadata,
-                updatedAt);
+                languageConfigs,
+                problem.getUpdatedAt());
     }
 
-    private ProblemMetadata parseMetadata(Long problemId, String metaJson) {
-        if (metaJson == null || metaJson.isBlank()) {
-            return ProblemMetadata.empty();
-        }
-        try {
-            JsonNode root = objectMapper.readTree(metaJson);
-            List<String> companies = new ArrayList<>();
-            JsonNode companiesNode = root.path("companies");
-            if (companiesNode.isArray()) {
-                for (JsonNode node : companiesNode) {
-                    if (node.isTextual()) {
-                        companies.add(node.asText());
-                    }
-                }
-            }
-            Double frequency =
-                    root.path("frequency").isNumber() ? root.get("frequency").doubleValue() : null;
-            Boolean paidOnly = extractBoolean(root, "paid_only");
-            Boolean leetcodeStyle = extractBoolean(root, "leetcode_style");
-            Integer frontendId =
-                    root.hasNonNull("frontend_id") ? root.get("frontend_id").asInt() : null;
-            return new ProblemMetadata(companies, frequency, paidOnly, frontendId, leetcodeStyle);
-        } catch (Exception e) {
-            log.warn("解析题目 {} 的元数据失败: {}", problemId, e.getMessage());
-            return ProblemMetadata.empty();
-        }
+    private List<ProblemCardView> toViews(List<ProblemCardRow> problems, String normalizedLang) {
+        List<Long> problemIds = problems.stream().map(ProblemCardRow::id).toList();
+        CompletableFuture<Map<Long, String>> titleLookup =
+                lookupExecutor.submit(() -> loadTitles(problemIds, normalizedLang));
+        CompletableFuture<Map<Long, List<TagInfo>>> tagLookup =
+                lookupExecutor.submit(() -> loadTags(problemIds));
+        Map<Long, String> titles = lookupExecutor.await("statements", titleLookup);
+        Map<Long, List<TagInfo>> tagsByProblem = lookupExecutor.await("tags", tagLookup);
+        return toViews(problems, titles, tagsByProblem);
     }
 
-    private Boolean extractBoolean(JsonNode root, String field) {
-        if (!root.has(field) || root.get(field).isNull()) {
-            return null;
-        }
-        JsonNode node = root.get(field);
-        if (node.isBoolean()) {
-            return node.booleanValue();
-        }
-        if (node.isTextual()) {
-            return Boolean.parseBoolean(node.asText());
-        }
-        if (node.isNumber()) {
-            return node.asInt() != 0;
-        }
-        return null;
+    List<ProblemCardView> toViews(
+            List<ProblemCardRow> problems,
+            Map<Long, String> titles,
+            Map<Long, List<TagInfo>> tagsByProblem) {
+        return problems.stream()
+                .map(
+                        problem ->
+                                toView(
+                                        problem,
+                                        titles.get(problem.id()),
+                                        referenceData.difficulty(problem.difficultyId()),
+                                        tagsByProblem.getOrDefault(problem.id(), List.of())))
+                .toList();
+    }
+
+    private ProblemCardView toView(
+            ProblemCardRow problem, String title, DifficultyInfo difficultyInfo, List<TagInfo> tags) {
+        ProblemMetadata metadata =
+                metadataParser.parse(problem.id(), problem.updatedAt(), problem.metaJson());
+        ProblemStats stats = new ProblemStats(problem.timeLimitMs(), problem.memoryLimitKb());
+
+        return new ProblemCardView(
+                problem.id(),
+                problem.slug(),
+                title != null ? title : problem.slug(),
+                difficultyInfo,
+                tags,
+                stats,
+                metadata,
+                problem.updatedAt());
     }
 
-    private String difficultyLabel(String code) {
-        if (code == null) {
-            return "未知";
+    static String normalizeSlug(String slug) {
+        if (slug == null || slug.isBlank()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "题目标识不能为空");
         }
-        return switch (code.toLowerCase()) {
-            case "easy" -> "简单";
-            case "medium" -> "中等";
-            case "hard" -> "困难";
-            default -> "未知";
-        };
+        return slug.trim();
     }
 
-    private String normalizeLang(String langCode) {
-        if (langCode == null || langCode.isBlank()) {
-            return DEFAULT_LANG;
+    static String normalizeLanguageCode(String languageCode) {
+        if (languageCode == null || languageCode.isBlank()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "编程语言不能为空");
         }
-        return langCode.trim();
+        return languageCode.trim().toLowerCase(Locale.ROOT);
     }
 
-    private List<String> buildLanguagePreference(String preferredLang) {
-        LinkedHashSet<String> langs = new LinkedHashSet<>();
-        if (preferredLang != null && !preferredLang.isBlank()) {
-            langs.add(preferredLang.trim());
+    static ProblemCursor parseCursor(String cursor, ProblemSort sort) {
+        ProblemCursor after =
+                cursor == null || cursor.isBlank() ? null : ProblemCursor.decode(cursor);
+        if (!sort.isDefault() && after != null) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "游标分页仅支持默认排序");
         }
-        langs.addAll(FALLBACK_LANGS);
-        return List.copyOf(langs);
+        return after;
     }
 }
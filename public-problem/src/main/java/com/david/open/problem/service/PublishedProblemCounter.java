@@ -0,0 +1,96 @@
+package com.david.open.problem.service;
+
+import com.david.open.problem.catalog.ProblemCatalog;
+import com.david.open.problem.catalog.ProblemCatalogRefreshedEvent;
+import com.david.open.problem.mapper.ProblemMapper;
+import com.david.open.problem.support.PublishedProblems;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 在内存中维护公开题目总数，供免计数的列表查询直接返回近似值。
+ *
+ * <p>按固定周期全量重算一次，并轮询 {@code problems.updated_at} 的最大值，水位变化时提前重算；
+ * 内存目录可用时直接采用目录快照的题目数，不再访问数据库。
+ */
+@Slf4j
+@Component
+public class PublishedProblemCounter {
+
+    private final ProblemMapper problemMapper;
+    private final ProblemCatalog problemCatalog;
+
+    private volatile Snapshot snapshot;
+    private volatile LocalDateTime lastSeenWatermark;
+
+    public PublishedProblemCounter(ProblemMapper problemMapper, ProblemCatalog problemCatalog) {
+        this.problemMapper = problemMapper;
+        this.problemCatalog = problemCatalog;
+    }
+
+    public long approximateTotal() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        return current.total();
+    }
+
+    public Instant countedAt() {
+        Snapshot current = snapshot;
+        return current == null ? null : current.countedAt();
+    }
+
+    public synchronized Snapshot refresh() {
+        long total = problemMapper.selectCount(PublishedProblems.query());
+        Snapshot refreshed = new Snapshot(total, Instant.now());
+        snapshot = refreshed;
+        return refreshed;
+    }
+
+    @Scheduled(
+            initialDelayString = "${ulticode.problem.total.refresh-interval:PT5M}",
+            fixedDelayString = "${ulticode.problem.total.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        if (problemCatalog.isServing()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("刷新公开题目总数失败: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ulticode.problem.total.change-poll-interval:PT5S}")
+    public void refreshOnChange() {
+        if (problemCatalog.isServing()) {
+            return;
+        }
+        try {
+            LocalDateTime watermark = problemMapper.selectLatestUpdatedAt();
+            if (lastSeenWatermark != null && Objects.equals(watermark, lastSeenWatermark)) {
+                return;
+            }
+            lastSeenWatermark = watermark;
+            refresh();
+        } catch (Exception e) {
+            log.warn("检测题目变更失败: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(ProblemCatalogRefreshedEvent event) {
+        snapshot = new Snapshot(event.current().size(), event.current().builtAt());
+    }
+
+    public record Snapshot(long total, Instant countedAt) {}
+}
@@ -0,0 +1,476 @@
+package com.david.open.problem.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.open.problem.cache.EncodedDetail;
+import com.david.open.problem.cache.EncodedDetailCache;
+import com.david.open.problem.cache.HotDetailCache;
+import com.david.open.problem.cache.ProblemDetailCache;
+import com.david.open.problem.cache.StarterCodeCache;
+import com.david.open.problem.catalog.CatalogSnapshot;
+import com.david.open.problem.catalog.ProblemCatalog;
+import com.david.open.problem.config.PublicProblemProperties;
+import com.david.open.problem.dto.ProblemBatchResponse;
+import com.david.open.problem.dto.ProblemCardView;
+import com.david.open.problem.dto.ProblemDetailResponse;
+import com.david.open.problem.dto.ProblemListResponse;
+import com.david.open.problem.dto.ProblemSearchResponse;
+import com.david.open.problem.dto.SimilarProblemsResponse;
+import com.david.open.problem.dto.StarterCodeResponse;
+import com.david.open.problem.mapper.ProblemDetailMapper.DetailHeadRow;
+import com.david.open.problem.mapper.ProblemMapper.ProblemCardRow;
+import com.david.open.problem.repository.ReactiveProblemRepository;
+import com.david.open.problem.support.DetailVersion;
+import com.david.open.problem.support.ProblemCursor;
+import com.david.open.problem.support.ProblemFilter;
+import com.david.open.problem.support.ProblemSort;
+import com.david.open.problem.support.ProblemViews;
+import com.david.open.problem.support.ResourceVersion;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 响应式部署下与 {@link ProblemQueryService} 对应的查询入口，返回相同的响应结构。
+ *
+ * <p>只读内存的部分（目录快照、筛选与搜索索引、进程内缓存）直接复用同步实现，这些调用不会阻塞；需要回源的
+ * 部分改走 {@link ReactiveProblemRepository}，详情缓存的 Redis 二级缓存走 Redisson 的响应式接口，数据库或
+ * Redis 变慢时只会积压等待，不会占住请求线程。
+ * 列表回源只支持默认排序且不读持久化卡片表，与目录不可用时的同步实现行为一致。
+ */
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveProblemQueryService {
+
+    private static final int BATCH_CONCURRENCY = 8;
+
+    private final ProblemQueryService problemQueryService;
+    private final ProblemExportService problemExportService;
+    private final ReactiveProblemRepository repository;
+    private final ProblemCatalog problemCatalog;
+    private final ProblemMetadataParser metadataParser;
+    private final PublishedProblemCounter publishedProblemCounter;
+    private final ProblemDetailCache problemDetailCache;
+    private final EncodedDetailCache encodedDetailCache;
+    private final StarterCodeCache starterCodeCache;
+    private final HotDetailCache hotDetailCache;
+    private final PublicProblemProperties properties;
+
+    public ReactiveProblemQueryService(
+            ProblemQueryService problemQueryService,
+            ProblemExportService problemExportService,
+            ReactiveProblemRepository repository,
+            ProblemCatalog problemCatalog,
+            ProblemMetadataParser metadataParser,
+            PublishedProblemCounter publishedProblemCounter,
+            ProblemDetailCache problemDetailCache,
+            EncodedDetailCache encodedDetailCache,
+            StarterCodeCache starterCodeCache,
+            HotDetailCache hotDetailCache,
+            PublicProblemProperties properties) {
+        this.problemQueryService = problemQueryService;
+        this.problemExportService = problemExportService;
+        this.repository = repository;
+        this.problemCatalog = problemCatalog;
+        this.metadataParser = metadataParser;
+        this.publishedProblemCounter = publishedProblemCounter;
+        this.problemDetailCache = problemDetailCache;
+        this.encodedDetailCache = encodedDetailCache;
+        this.starterCodeCache = starterCodeCache;
+        this.hotDetailCache = hotDetailCache;
+        this.properties = properties;
+    }
+
+    public ResourceVersion listVersion() {
+        return problemQueryService.listVersion();
+    }
+
+    public void validateListRequest(String cursor, ProblemSort sort) {
+        problemQueryService.validateListRequest(cursor, sort);
+    }
+
+    public Mono<ProblemListResponse> listProblems(
+            int page,
+            int size,
+            String langCode,
+            String cursor,
+            boolean exactTotal,
+            ProblemFilter filter,
+            boolean includeFacets,
+            ProblemSort sort) {
+        return Mono.defer(
+                () -> {
+                    // 目录是否可用只判断一次：可用时只读内存，否则走 R2DBC，任何情况下都不落到 JDBC 回源
+                    ProblemListResponse fromMemory =
+                            problemQueryService.listFromMemory(
+                                    page, size, langCode, cursor, filter, includeFacets, sort);
+                    if (fromMemory != null) {
+                        return Mono.just(fromMemory);
+                    }
+                    ProblemSort safeSort = sort != null ? sort : ProblemSort.DEFAULT;
+                    ProblemCursor after = ProblemQueryService.parseCursor(cursor, safeSort);
+                    if ((filter != null && !filter.isEmpty()) || !safeSort.isDefault()) {
+                        throw new BusinessException(
+                                HttpStatus.SERVICE_UNAVAILABLE, "题目筛选与排序暂不可用，请稍后重试");
+                    }
+                    int safePage = Math.max(page, 1);
+                    int safeSize =
+                            Math.min(Math.max(size, 1), ProblemQueryService.MAX_PAGE_SIZE);
+                    return listFromDatabase(
+                            safePage,
+                            safeSize,
+                            ProblemViews.normalizeLang(langCode),
+                            after,
+                            exactTotal);
+                });
+    }
+
+    private Mono<ProblemListResponse> listFromDatabase(
+            int safePage,
+            int safeSize,
+            String normalizedLang,
+            ProblemCursor after,
+            boolean exactTotal) {
+        Mono<Long> total =
+                exactTotal || publishedProblemCounter.countedAt() == null
+                        ? repository.countPublished()
+                        : Mono.fromSupplier(publishedProblemCounter::approximateTotal);
+        return total.flatMap(
+                count -> {
+                    if (exactTotal && count == 0) {
+                        return Mono.just(
+                                new ProblemListResponse(
+                                        0, true, safePage, safeSize, false, List.of(), null, null));
+                    }
+                    boolean probeNextRow = after != null || !exactTotal;
+                    int limit = probeNextRow ? safeSize + 1 : safeSize;
+                    return repository
+                            .findCardPage(after, limit, (long) (safePage - 1) * safeSize)
+                            .collectList()
+                            .flatMap(
+                                    rows -> {
+                                        boolean hasMore;
+                                        List<ProblemCardRow> problems = rows;
+                                        if (probeNextRow) {
+                                            hasMore = problems.size() > safeSize;
+                                            if (hasMore) {
+                                                problems = problems.subList(0, safeSize);
+                                            }
+                                        } else {
+                                            hasMore = (long) safePage * safeSize < count;
+                                        }
+                                        return page(
+                                                problems,
+                                                normalizedLang,
+                                                count,
+                                                exactTotal,
+                                                safePage,
+                                                safeSize,
+                                                hasMore);
+                                    });
+                });
+    }
+
+    private Mono<ProblemListResponse> page(
+            List<ProblemCardRow> problems,
+            String normalizedLang,
+            long total,
+            boolean exactTotal,
+            int safePage,
+            int safeSize,
+            boolean hasMore) {
+        if (problems.isEmpty()) {
+            return Mono.just(
+                    new ProblemListResponse(
+                            total, exactTotal, safePage, safeSize, false, List.of(), null, null));
+        }
+        List<Long> problemIds = problems.stream().map(ProblemCardRow::id).toList();
+        List<String> languageOrder = ProblemViews.languagePreference(normalizedLang);
+        return Mono.zip(
+                        repository
+                                .findTitles(problemIds, languageOrder)
+                                .collectList()
+                                .map(
+                                        rows ->
+                                                ProblemQueryService.titlesOf(
+                                                        problemIds, rows, languageOrder)),
+                        repository
+                                .findTagRelations(problemIds)
+                                .collectList()
+                                .map(problemQueryService::tagsOf))
+                .map(
+                        lookups -> {
+                            List<ProblemCardView> items =
+                                    problemQueryService.toViews(
+                                            problems, lookups.getT1(), lookups.getT2());
+                            ProblemCardRow last = problems.get(problems.size() - 1);
+                            String nextCursor =
+                                    hasMore
+                                            ? new ProblemCursor(last.updatedAt(), last.id())
+                                                    .encode()
+                                            : null;
+                            return new ProblemListResponse(
+                                    total,
+                                    exactTotal,
+                                    safePage,
+                                    safeSize,
+                                    hasMore,
+                                    items,
+                                    nextCursor,
+                                    null);
+                        });
+    }
+
+    public Mono<ProblemSearchResponse> searchProblems(
+            String query, int page, int size, String langCode, boolean prefix) {
+        return Mono.fromSupplier(
+                () -> problemQueryService.searchProblems(query, page, size, langCode, prefix));
+    }
+
+    public Mono<ProblemCardView> randomProblem(ProblemFilter filter, String langCode) {
+        return Mono.fromSupplier(() -> problemQueryService.randomProblem(filter, langCode));
+    }
+
+    public Mono<SimilarProblemsResponse> similarProblems(String slug, int limit, String langCode) {
+        return Mono.fromSupplier(
+                () -> problemQueryService.similarProblems(slug, limit, langCode));
+    }
+
+    /** 目录可用时直接读快照里的版本，否则查一次题目表；题目不存在或未公开时以 404 结束。 */
+    public Mono<DetailVersion> resolveDetailVersion(String slug, String langCode, boolean slim) {
+        return Mono.defer(
+                () -> {
+                    String normalizedSlug = ProblemQueryService.normalizeSlug(slug);
+                    String normalizedLang = ProblemViews.normalizeLang(langCode);
+                    return currentVersion(normalizedSlug)
+                            .map(
+                                    updatedAt ->
+                                            new DetailVersion(
+                                                    normalizedSlug,
+                                                    normalizedLang,
+                                                    slim,
+                                                    updatedAt));
+                });
+    }
+
+    /** 与 {@link ProblemQueryService#getEncodedProblemDetail} 相同，先查常驻热门响应，再查字节缓存，最后回源。 */
+    public Mono<EncodedDetail> getEncodedProblemDetail(DetailVersion version) {
+        return Mono.defer(
+                () -> {
+                    hotDetailCache.record(version);
+                    EncodedDetail pinned = hotDetailCache.getIfCurrent(version);
+                    if (pinned != null) {
+                        return Mono.just(pinned);
+                    }
+                    EncodedDetail cached = encodedDetailCache.getIfCurrent(version);
+                    if (cached != null) {
+                        hotDetailCache.pinIfHot(version, cached);
+                        return Mono.just(cached);
+                    }
+                    return getProblemDetail(version)
+                            .map(
+                                    detail -> {
+                                        EncodedDetail encoded =
+                                                encodedDetailCache.put(version, detail);
+                                        hotDetailCache.pinIfHot(version, encoded);
+                                        return encoded;
+                                    });
+                });
+    }
+
+    /** 详情缓存的 Redis 二级缓存经响应式接口读写，不在事件循环或 R2DBC 线程上阻塞。 */
+    public Mono<ProblemDetailResponse> getProblemDetail(DetailVersion version) {
+        Mono<ProblemDetailResponse> load =
+                Mono.defer(() -> loadProblemDetail(version))
+                        .flatMap(detail -> cacheDetail(version, detail));
+        return Mono.defer(
+                        () ->
+                                problemDetailCache.getIfCurrentReactive(
+                                        version.slug(), version.variant(), version.updatedAt()))
+                .switchIfEmpty(load);
+    }
+
+    private Mono<ProblemDetailResponse> cacheDetail(
+            DetailVersion version, ProblemDetailResponse detail) {
+        return problemDetailCache
+                .putReactive(version.slug(), version.variant(), version.updatedAt(), detail)
+                .thenReturn(detail);
+    }
+
+    private Mono<ProblemDetailResponse> loadProblemDetail(DetailVersion version) {
+        return repository
+                .findDetailHead(
+                        version.slug(), ProblemViews.languagePreference(version.lang()))
+                .switchIfEmpty(notFound("题目不存在或尚未公开"))
+                .flatMap(
+                        head -> {
+                            if (head.langCode() == null) {
+                                return Mono.error(
+                                        new BusinessException(
+                                                HttpStatus.NOT_FOUND, "题目描述暂不可用"));
+                            }
+                            return assemble(head, !version.slim());
+                        });
+    }
+
+    private Mono<ProblemDetailResponse> assemble(DetailHeadRow head, boolean withStarterCode) {
+        return repository
+                .findDetailChildren(head.id(), withStarterCode)
+                .collect(ProblemDetailAssembler::new, ProblemDetailAssembler::add)
+                .map(
+                        assembler ->
+                                assembler.assemble(
+                                        head,
+                                        metadataParser.parse(
+                                                head.id(), head.updatedAt(), head.metaJson())));
+    }
+
+    /** 批量详情逐题走单题路径，每道题各自命中缓存或回源，并发数受限以免一次请求占满连接池。 */
+    public Mono<ProblemBatchResponse> getProblemDetails(List<String> slugs, String langCode) {
+        return Mono.defer(
+                () -> {
+                    LinkedHashSet<String> normalizedSlugs = new LinkedHashSet<>();
+                    if (slugs != null) {
+                        for (String slug : slugs) {
+                            if (slug != null && !slug.isBlank()) {
+                                normalizedSlugs.add(slug.trim());
+                            }
+                        }
+                    }
+                    if (normalizedSlugs.isEmpty()) {
+                        throw new BusinessException(HttpStatus.BAD_REQUEST, "题目标识不能为空");
+                    }
+                    if (normalizedSlugs.size() > ProblemQueryService.MAX_BATCH_SIZE) {
+                        throw new BusinessException(
+                                HttpStatus.BAD_REQUEST,
+                                "单次最多查询" + ProblemQueryService.MAX_BATCH_SIZE + "道题目");
+                    }
+                    String normalizedLang = ProblemViews.normalizeLang(langCode);
+                    return Flux.fromIterable(normalizedSlugs)
+                            .flatMapSequential(
+                                    slug -> batchItem(slug, normalizedLang), BATCH_CONCURRENCY)
+                            .collectList()
+                            .map(items -> new ProblemBatchResponse(normalizedLang, items));
+                });
+    }
+
+    private Mono<ProblemBatchResponse.Item> batchItem(String slug, String normalizedLang) {
+        return resolveDetailVersion(slug, normalizedLang, false)
+                .flatMap(this::getProblemDetail)
+                .map(detail -> ProblemBatchResponse.Item.found(slug, detail))
+                .onErrorResume(
+                        BusinessException.class,
+                        e ->
+                                e.getStatus() == HttpStatus.NOT_FOUND
+                                        ? Mono.just(ProblemBatchResponse.Item.notFound(slug))
+                                        : Mono.error(e));
+    }
+
+    public Mono<ResourceVersion> starterCodeVersion(String slug, String languageCode) {
+        return Mono.defer(
+                () -> {
+                    String normalizedLanguage =
+                            ProblemQueryService.normalizeLanguageCode(languageCode);
+                    return currentVersion(ProblemQueryService.normalizeSlug(slug))
+                            .map(
+                                    updatedAt ->
+                                            ResourceVersion.ofProblem(
+                                                    updatedAt,
+                                                    ProblemQueryService.STARTER_CODE_VARIANT
+                                                            + normalizedLanguage));
+                });
+    }
+
+    public Mono<StarterCodeResponse> getStarterCode(String slug, String languageCode) {
+        return Mono.defer(
+                () -> {
+                    String normalizedSlug = ProblemQueryService.normalizeSlug(slug);
+                    String normalizedLanguage =
+                            ProblemQueryService.normalizeLanguageCode(languageCode);
+                    return currentVersion(normalizedSlug)
+                            .flatMap(
+                                    updatedAt -> {
+                                        StarterCodeResponse cached =
+                                                starterCodeCache.getIfCurrent(
+                                                        normalizedSlug,
+                                                        normalizedLanguage,
+                                                        updatedAt);
+                                        return cached != null
+                                                ? Mono.just(cached)
+                                                : loadStarterCode(
+                                                        normalizedSlug, normalizedLanguage);
+                                    });
+                });
+    }
+
+    private Mono<StarterCodeResponse> loadStarterCode(String normalizedSlug, String language) {
+        return repository
+                .findStarterCode(normalizedSlug, language)
+                .switchIfEmpty(notFound("题目不存在或未配置该编程语言"))
+                .map(
+                        row ->
+                                new StarterCodeResponse(
+                                        row.problemId(),
+                                        row.slug(),
+                                        row.languageId(),
+                                        row.languageCode(),
+                                        row.languageName(),
+                                        row.functionName(),
+                                        row.starterCode(),
+                                        row.updatedAt()))
+                .doOnNext(
+                        response -> starterCodeCache.put(normalizedSlug, language, response));
+    }
+
+    /**
+     * 与 {@link ProblemExportService#export} 相同按题目ID键集分页，逐行输出导出对象。下游写完当前页才读取
+     * 下一页，每页是一条独立的短查询，内存占用与题目总数无关，慢速下载也不会一直占用连接。
+     *
+     * @param updatedSince 只导出此时间之后更新过的题目，为空时导出全部
+     */
+    public Flux<Object> export(
+            ProblemExportService.View view, String langCode, LocalDateTime updatedSince) {
+        List<String> languageOrder = ProblemViews.languagePreference(langCode);
+        boolean detail = view == ProblemExportService.View.DETAIL;
+        int pageSize = Math.max(properties.getExport().getPageSize(), 1);
+        return repository
+                .findExportPage(languageOrder, detail, updatedSince, null, pageSize)
+                .expand(
+                        page ->
+                                page.size() < pageSize
+                                        ? Mono.empty()
+                                        : repository.findExportPage(
+                                                languageOrder,
+                                                detail,
+                                                updatedSince,
+                                                page.get(page.size() - 1).id(),
+                                                pageSize))
+                .flatMapIterable(page -> page, 1)
+                .mapNotNull(row -> problemExportService.toLine(view, row));
+    }
+
+    private Mono<LocalDateTime> currentVersion(String normalizedSlug) {
+        if (problemCatalog.isServing()) {
+            CatalogSnapshot snapshot = problemCatalog.snapshot();
+            int ordinal = snapshot.ordinalOf(normalizedSlug);
+            return ordinal >= 0
+                    ? Mono.just(snapshot.updatedAt(ordinal))
+                    : notFound("题目不存在或尚未公开");
+        }
+        return repository
+                .findPublishedVersion(normalizedSlug)
+                .switchIfEmpty(notFound("题目不存在或尚未公开"));
+    }
+
+    private static <T> Mono<T> notFound(String message) {
+        return Mono.error(new BusinessException(HttpStatus.NOT_FOUND, message));
+    }
+}
@@ -0,0 +1,34 @@
+package com.david.open.problem.support;
+
+/** 请求头 {@code Accept-Encoding} 的解析。 */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {}
+
+    /** 解析 {@code Accept-Encoding}，识别 {@code gzip} 或 {@code *}，并排除 {@code q=0}。 */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split("\\s*;\\s*");
+            if (!"gzip".equalsIgnoreCase(tokens[0]) && !"*".equals(tokens[0])) {
+                continue;
+            }
+            double quality = 1d;
+            for (int i = 1; i < tokens.length; i++) {
+                if (tokens[i].startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(tokens[i].substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0d;
+                    }
+                }
+            }
+            if (quality > 0d) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
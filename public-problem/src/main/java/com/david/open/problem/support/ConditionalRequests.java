@@ -0,0 +1,67 @@
+package com.david.open.problem.support;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+
+/** 控制器共用的条件请求处理。 */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {}
+
+    /**
+     * 按资源版本处理 If-None-Match / If-Modified-Since；命中时由框架写出 304，调用方直接返回。
+     *
+     * <p>带版本的响应统一要求客户端每次回源校验，避免按 Last-Modified 启发式缓存读到旧内容。
+     */
+    public static boolean notModified(
+            ResourceVersion version, WebRequest webRequest, HttpServletResponse servletResponse) {
+        if (version == null) {
+            return false;
+        }
+        servletResponse.setHeader(
+                HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return webRequest.checkNotModified(version.etag(), version.lastModifiedMillis());
+    }
+
+    /**
+     * 为可协商编码的响应在 ETag 中带上按 {@code Accept} 协商出的编码，避免 JSON 与二进制编码共用同一个强
+     * ETag；此类响应还需声明 {@code Vary: Accept}。
+     */
+    public static ResourceVersion withNegotiatedFormat(
+            ResourceVersion version, WebRequest webRequest) {
+        if (version == null) {
+            return null;
+        }
+        return version.withFormat(
+                ResponseFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT)));
+    }
+
+    /** 响应式部署下的 {@link #withNegotiatedFormat(ResourceVersion, WebRequest)}。 */
+    public static ResourceVersion withNegotiatedFormat(
+            ResourceVersion version, ServerWebExchange exchange) {
+        if (version == null) {
+            return null;
+        }
+        return version.withFormat(
+                ResponseFormat.negotiate(
+                        exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT)));
+    }
+
+    /** 响应式部署下的同一套条件请求处理。 */
+    public static boolean notModified(ResourceVersion version, ServerWebExchange exchange) {
+        if (version == null) {
+            return false;
+        }
+        exchange.getResponse()
+                .getHeaders()
+                .setCacheControl(CacheControl.noCache().getHeaderValue());
+        return exchange.checkNotModified(
+                version.etag(), Instant.ofEpochMilli(version.lastModifiedMillis()));
+    }
+}
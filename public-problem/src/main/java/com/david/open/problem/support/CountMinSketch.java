@@ -0,0 +1,62 @@
+package com.david.open.problem.support;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 线程安全的 Count-Min 频率草图：固定内存估算各个键的出现次数，估算值只会偏大不会偏小。
+ *
+ * <p>{@link #halve()} 把全部计数减半，周期性调用后估算值近似于按指数衰减的近期频率。
+ */
+public final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    private final AtomicIntegerArray[] rows = new AtomicIntegerArray[DEPTH];
+    private final int mask;
+
+    /** @param width 每行的计数器个数，向上取整为 2 的幂 */
+    public CountMinSketch(int width) {
+        int size = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.mask = size - 1;
+        for (int i = 0; i < DEPTH; i++) {
+            rows[i] = new AtomicIntegerArray(size);
+        }
+    }
+
+    /** 记录一次出现，返回记录后的估算次数。 */
+    public int increment(Object key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 ^ 0x9E3779B9) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = (h1 + i * h2) & mask;
+            int updated = rows[i].incrementAndGet(index);
+            if (updated < 0) {
+                rows[i].set(index, Integer.MAX_VALUE);
+                updated = Integer.MAX_VALUE;
+            }
+            estimate = Math.min(estimate, updated);
+        }
+        return estimate;
+    }
+
+    public void halve() {
+        for (AtomicIntegerArray row : rows) {
+            for (int i = 0; i < row.length(); i++) {
+                row.set(i, row.get(i) >>> 1);
+            }
+        }
+    }
+
+    public long estimatedBytes() {
+        return 4L * DEPTH * (mask + 1);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,26 @@
+package com.david.open.problem.support;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次详情请求解析出的规范化参数与题目当前版本。
+ *
+ * @param slug      去除空白后的题目标识
+ * @param lang      规范化后的语言
+ * @param slim      精简模式：语言配置只含语言ID与名称，不含函数名与起始代码
+ * @param updatedAt 题目更新时间；内存目录中不存在该题目时为 {@code null}
+ */
+public record DetailVersion(String slug, String lang, boolean slim, LocalDateTime updatedAt) {
+
+    private static final String SLIM_SUFFIX = "~slim";
+
+    /** 区分表示形式的缓存键：完整详情即语言本身，精简详情附加后缀。 */
+    public String variant() {
+        return slim ? lang + SLIM_SUFFIX : lang;
+    }
+
+    /** 版本未知时返回 {@code null}，此时不参与条件请求。 */
+    public ResourceVersion resource() {
+        return updatedAt != null ? ResourceVersion.ofProblem(updatedAt, variant()) : null;
+    }
+}
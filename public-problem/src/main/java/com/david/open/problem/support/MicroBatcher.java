@@ -0,0 +1,159 @@
+package com.david.open.problem.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 把短时间窗口内到达的单键查询合并为一次批量查询，结果按键分发给各自的等待方。
+ *
+ * <p>同一个键在查询完成前只会被加载一次，后到的请求直接复用进行中的结果（single-flight）。窗口从第一个
+ * 待处理的键到达时开始计时，攒满 {@code maxBatchSize} 个键时立即提交。批量加载函数未返回某个键时，
+ * 该键的结果为 {@code null}。
+ *
+ * <p>计时与批量加载在批处理器自有的线程池中执行，使用完毕应调用 {@link #close()}。
+ *
+ * @param <K> 查询键
+ * @param <V> 查询结果
+ */
+@Slf4j
+public final class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final String name;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Duration timeout;
+    private final Function<Set<K>, Map<K, V>> loader;
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<K> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param timeout 等待方最长等待时间，超时后以 {@link java.util.concurrent.TimeoutException} 结束
+     * @param threads 执行批量加载的线程数
+     */
+    public MicroBatcher(
+            String name,
+            Duration window,
+            int maxBatchSize,
+            Duration timeout,
+            int threads,
+            Function<Set<K>, Map<K, V>> loader) {
+        this.name = name;
+        this.window = window;
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.timeout = timeout;
+        this.loader = loader;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.setPoolSize(Math.max(threads, 1));
+        this.scheduler.setThreadNamePrefix(name + "-");
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.initialize();
+    }
+
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing == null) {
+            created.whenComplete((value, error) -> inFlight.remove(key, created));
+            enqueue(key);
+            existing = created;
+        }
+        // 每个等待方各自计时，超时不影响同一批次中的其它等待方
+        return existing.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void enqueue(K key) {
+        List<K> batch = null;
+        synchronized (lock) {
+            pending.add(key);
+            if (pending.size() >= maxBatchSize) {
+                batch = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, Instant.now().plus(window));
+            }
+        }
+        if (batch != null) {
+            List<K> full = batch;
+            scheduler.execute(() -> run(full));
+        }
+    }
+
+    private void flush() {
+        List<K> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            run(batch);
+        }
+    }
+
+    /** 调用方持有 {@code lock}。 */
+    private List<K> drain() {
+        List<K> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void run(List<K> batch) {
+        Set<K> keys = new LinkedHashSet<>(batch);
+        long started = System.nanoTime();
+        try {
+            Map<K, V> results = loader.apply(keys);
+            for (K key : keys) {
+                complete(key, results.get(key), null);
+            }
+        } catch (Throwable e) {
+            // 包括 Error：失败也必须结束共享的进行中结果，否则该键会一直留在 inFlight 中，后续请求全部超时
+            for (K key : keys) {
+                complete(key, null, e);
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+        log.debug(
+                "{} 合并加载 {} 个键, 耗时 {} µs",
+                name,
+                keys.size(),
+                (System.nanoTime() - started) / 1_000);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+    private void complete(K key, V value, Throwable error) {
+        CompletableFuture<V> future = inFlight.get(key);
+        if (future == null) {
+            return;
+        }
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(value);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.david.open.problem.support;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 带重叠窗口的 {@code updated_at} 增量水位。
+ *
+ * <p>每轮拉取 {@code updated_at >= 水位 - overlap} 的行，晚提交、时间戳早于水位的事务以及与水位同一时刻的行
+ * 只要落在窗口内都不会漏掉；窗口内已处理过的 {@code (id, updated_at)} 被记住并跳过，同一行不会每轮重复处理。
+ * 滑出窗口的记录随水位推进清理，占用与窗口内的变更行数成正比。
+ */
+public final class OverlapWatermark {
+
+    private final Duration overlap;
+    private final Map<Long, LocalDateTime> seen = new HashMap<>();
+    private LocalDateTime mark;
+
+    public OverlapWatermark(Duration overlap) {
+        this.overlap = overlap;
+    }
+
+    public synchronized LocalDateTime mark() {
+        return mark;
+    }
+
+    /** 本轮查询的下界，水位为空时为 {@code null}，即拉取全部。 */
+    public synchronized LocalDateTime lowerBound() {
+        return mark == null ? null : mark.minus(overlap);
+    }
+
+    /** 挑出窗口内尚未处理过的行，{@code updated_at} 为空的行忽略。 */
+    public synchronized <T> List<T> unseen(
+            List<T> rows, Function<T, Long> id, Function<T, LocalDateTime> updatedAt) {
+        List<T> fresh = new ArrayList<>();
+        for (T row : rows) {
+            LocalDateTime at = updatedAt.apply(row);
+            if (at != null && !at.equals(seen.get(id.apply(row)))) {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    /** 这些行已处理完成：记住它们，水位推进到见过的最大时间，并清理滑出窗口的记录。 */
+    public synchronized <T> void advance(
+            List<T> rows, Function<T, Long> id, Function<T, LocalDateTime> updatedAt) {
+        for (T row : rows) {
+            LocalDateTime at = updatedAt.apply(row);
+            if (at == null) {
+                continue;
+            }
+            seen.put(id.apply(row), at);
+            if (mark == null || at.isAfter(mark)) {
+                mark = at;
+            }
+        }
+        if (mark != null) {
+            LocalDateTime floor = mark.minus(overlap);
+            seen.values().removeIf(at -> at.isBefore(floor));
+        }
+    }
+
+    /** 全量重建后从 {@code next} 续接；窗口内的行下一轮会再处理一次，调用方的重写须是幂等的。 */
+    public synchronized void reset(LocalDateTime next) {
+        mark = next;
+        seen.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package com.david.open.problem.support;
+
+import com.david.core.exception.BusinessException;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 题目列表的键集分页游标，按 {@code (updated_at DESC, id DESC)} 定位上一页的最后一行。
+ *
+ * <p>对外只暴露 Base64URL 编码后的不透明字符串，客户端不应解析其内容。
+ */
+public record ProblemCursor(LocalDateTime updatedAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public ProblemCursor {
+        Objects.requireNonNull(updatedAt, "游标时间不能为空");
+        Objects.requireNonNull(id, "游标ID不能为空");
+    }
+
+    public String encode() {
+        String raw = updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProblemCursor decode(String token) {
+        try {
+            String raw =
+                    new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split <= 0 || split == raw.length() - 1) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new ProblemCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "分页游标无效");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.david.open.problem.support;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 题目列表的筛选条件：难度之间取并集，标签、公司各自取交集，三个维度再取交集。
+ *
+ * <p>取值统一去空白并转小写；同一参数既可重复出现，也可用逗号分隔。
+ *
+ * @param difficulties 难度编码，如 {@code easy}
+ * @param tags         标签 slug
+ * @param companies    公司名称
+ */
+public record ProblemFilter(Set<String> difficulties, Set<String> tags, Set<String> companies) {
+
+    public static final ProblemFilter NONE = new ProblemFilter(Set.of(), Set.of(), Set.of());
+
+    public ProblemFilter {
+        difficulties = Set.copyOf(difficulties);
+        tags = Set.copyOf(tags);
+        companies = Set.copyOf(companies);
+    }
+
+    public static ProblemFilter of(
+            Collection<String> difficulties, Collection<String> tags, Collection<String> companies) {
+        return new ProblemFilter(normalize(difficulties), normalize(tags), normalize(companies));
+    }
+
+    public boolean isEmpty() {
+        return difficulties.isEmpty() && tags.isEmpty() && companies.isEmpty();
+    }
+
+    public static String normalizeValue(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalize(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            for (String part : value.split(",")) {
+                String key = normalizeValue(part);
+                if (!key.isEmpty()) {
+                    normalized.add(key);
+                }
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,74 @@
+package com.david.open.problem.support;
+
+import com.david.core.exception.BusinessException;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+/**
+ * 题目列表的排序方式。空值一律排在末尾，同值之间保持默认顺序（更新时间倒序）。
+ *
+ * @param key        排序字段
+ * @param descending 是否倒序
+ */
+public record ProblemSort(Key key, boolean descending) {
+
+    public static final ProblemSort DEFAULT = new ProblemSort(Key.UPDATED, true);
+
+    public enum Key {
+        UPDATED("updatedAt", true),
+        FRONTEND_ID("frontendId", false),
+        FREQUENCY("frequency", true),
+        DIFFICULTY("difficulty", false);
+
+        private final String param;
+        private final boolean descendingByDefault;
+
+        Key(String param, boolean descendingByDefault) {
+            this.param = param;
+            this.descendingByDefault = descendingByDefault;
+        }
+
+        public String param() {
+            return param;
+        }
+    }
+
+    /**
+     * 解析 {@code sort} 与 {@code order} 参数，{@code order} 缺省时使用字段的自然方向。
+     *
+     * @param sort  {@code updatedAt}、{@code frontendId}、{@code frequency} 或 {@code difficulty}
+     * @param order {@code asc} 或 {@code desc}
+     */
+    public static ProblemSort parse(String sort, String order) {
+        if ((sort == null || sort.isBlank()) && (order == null || order.isBlank())) {
+            return DEFAULT;
+        }
+        Key key = Key.UPDATED;
+        if (sort != null && !sort.isBlank()) {
+            key = null;
+            for (Key candidate : Key.values()) {
+                if (candidate.param.equalsIgnoreCase(sort.trim())) {
+                    key = candidate;
+                }
+            }
+            if (key == null) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "不支持的排序字段: " + sort);
+            }
+        }
+        if (order == null || order.isBlank()) {
+            return new ProblemSort(key, key.descendingByDefault);
+        }
+        return switch (order.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> new ProblemSort(key, false);
+            case "desc" -> new ProblemSort(key, true);
+            default -> throw new BusinessException(
+                    HttpStatus.BAD_REQUEST, "不支持的排序方向: " + order);
+        };
+    }
+
+    public boolean isDefault() {
+        return DEFAULT.equals(this);
+    }
+}
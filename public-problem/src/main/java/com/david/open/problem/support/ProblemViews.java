@@ -0,0 +1,46 @@
+package com.david.open.problem.support;
+
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.david.open.problem.dto.ProblemDetailResponse.LanguageConfig;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 题目卡片与详情的统一展示口径：默认语言、标题与描述的语言回退顺序、标签与编程语言的排序。
+ *
+ * <p>目录快照、逐次查库、持久化卡片表与导出各自组装视图，都必须经由这里，保证同一道题在各条路径上
+ * 看到的标题与排序一致。
+ */
+public final class ProblemViews {
+
+    public static final String DEFAULT_LANG = "zh-CN";
+    public static final List<String> FALLBACK_LANGS = List.of("zh-CN", "en");
+
+    public static final Comparator<TagInfo> TAG_ORDER =
+            Comparator.comparing(TagInfo::name, Comparator.nullsLast(String::compareTo));
+    public static final Comparator<LanguageConfig> LANGUAGE_ORDER =
+            Comparator.comparing(
+                    config -> config.languageName() != null ? config.languageName() : "",
+                    String.CASE_INSENSITIVE_ORDER);
+
+    private ProblemViews() {}
+
+    public static String normalizeLang(String langCode) {
+        if (langCode == null || langCode.isBlank()) {
+            return DEFAULT_LANG;
+        }
+        return langCode.trim();
+    }
+
+    /** 请求语言在前、回退语言在后的去重列表；未指定语言时即为回退顺序。 */
+    public static List<String> languagePreference(String preferredLang) {
+        LinkedHashSet<String> langs = new LinkedHashSet<>();
+        if (preferredLang != null && !preferredLang.isBlank()) {
+            langs.add(preferredLang.trim());
+        }
+        langs.addAll(FALLBACK_LANGS);
+        return List.copyOf(langs);
+    }
+}
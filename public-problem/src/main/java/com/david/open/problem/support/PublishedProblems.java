@@ -0,0 +1,32 @@
+package com.david.open.problem.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.open.problem.entity.Problem;
+
+/**
+ * "已公开题目"的统一判定口径：公开、已发布且审核通过。
+ *
+ * <p>SQL 查询与内存索引都必须经由这里，保证两条路径看到的题目集合一致。
+ */
+public final class PublishedProblems {
+
+    public static final String LIFECYCLE_PUBLISHED = "published";
+    public static final String REVIEW_APPROVED = "approved";
+
+    private PublishedProblems() {}
+
+    public static LambdaQueryWrapper<Problem> query() {
+        return Wrappers.lambdaQuery(Problem.class)
+                .eq(Problem::getIsPublic, 1)
+                .eq(Problem::getLifecycleStatus, LIFECYCLE_PUBLISHED)
+                .eq(Problem::getReviewStatus, REVIEW_APPROVED);
+    }
+
+    public static boolean isPublished(Problem problem) {
+        return problem != null
+                && Integer.valueOf(1).equals(problem.getIsPublic())
+                && LIFECYCLE_PUBLISHED.equals(problem.getLifecycleStatus())
+                && REVIEW_APPROVED.equals(problem.getReviewStatus());
+    }
+}
@@ -0,0 +1,57 @@
+package com.david.open.problem.support;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 条件请求使用的资源版本：强 ETag 与 Last-Modified。
+ *
+ * <p>版本只由请求前即可廉价获得的信息（目录内容摘要、题目更新时间）推导，命中时无需再查询题目内容；
+ * 这些信息在内容相同时跨实例、跨重启一致，不依赖进程内的计数器。
+ *
+ * @param etag               不带引号的强 ETag
+ * @param lastModifiedMillis Last-Modified 对应的毫秒时间戳，未知时为 -1
+ */
+public record ResourceVersion(String etag, long lastModifiedMillis) {
+
+    private static final Pattern UNSAFE_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    /** 列表类响应：由目录快照的内容摘要决定。 */
+    public static ResourceVersion ofCatalog(long fingerprint, Instant builtAt) {
+        return new ResourceVersion(
+                "c" + Long.toUnsignedString(fingerprint, 36),
+                builtAt != null ? builtAt.toEpochMilli() : -1);
+    }
+
+    /** 标签列表：由列表内容摘要决定，与目录快照版本无关。 */
+    public static ResourceVersion ofTags(long fingerprint, Instant changedAt) {
+        return new ResourceVersion(
+                "t" + Long.toUnsignedString(fingerprint, 36),
+                changedAt != null ? changedAt.toEpochMilli() : -1);
+    }
+
+    /** 同一版本按协商出的响应编码区分 ETag，Last-Modified 不变。 */
+    public ResourceVersion withFormat(ResponseFormat format) {
+        return new ResourceVersion(etag + "-" + format.token(), lastModifiedMillis);
+    }
+
+    /**
+     * 同一版本按内容编码区分 ETag。压缩与未压缩的响应体字节不同，不能共用同一个强 ETag；
+     * {@code coding} 须为 ETag 允许的字符。
+     */
+    public ResourceVersion withContentCoding(String coding) {
+        return new ResourceVersion(etag + "-" + coding, lastModifiedMillis);
+    }
+
+    /** 单题资源：由题目更新时间与表示形式（语言、精简模式、起始代码的编程语言等）共同决定。 */
+    public static ResourceVersion ofProblem(LocalDateTime updatedAt, String variant) {
+        Instant instant = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+        String suffix = UNSAFE_CHARS.matcher(variant).replaceAll("_");
+        return new ResourceVersion(
+                "p" + Long.toString(micros, 36) + "-" + suffix, instant.toEpochMilli());
+    }
+}
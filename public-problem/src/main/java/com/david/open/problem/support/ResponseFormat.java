@@ -0,0 +1,71 @@
+package com.david.open.problem.support;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * 请求头 {@code Accept} 在 JSON、CBOR、Smile 三种响应编码间的协商结果。
+ *
+ * <p>同一资源版本的三种编码字节不同，强 ETag 需带上协商出的编码，见 {@link
+ * ResourceVersion#withFormat}。协商规则与消息转换器的顺序一致：取质量值最高者，同分时依次偏好 JSON、CBOR、
+ * Smile；{@code Accept} 缺失、无法解析或不接受任何一种时按 JSON 处理。
+ */
+public enum ResponseFormat {
+    JSON("json", MediaType.APPLICATION_JSON),
+    CBOR("cbor", MediaType.APPLICATION_CBOR),
+    SMILE("smile", new MediaType("application", "x-jackson-smile"));
+
+    private final String token;
+    private final MediaType mediaType;
+
+    ResponseFormat(String token, MediaType mediaType) {
+        this.token = token;
+        this.mediaType = mediaType;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        ResponseFormat best = JSON;
+        double bestQuality = 0d;
+        for (ResponseFormat format : values()) {
+            double quality = format.quality(accepted);
+            if (quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /** 按最具体的匹配范围取质量值，未被接受时为 0。 */
+    private double quality(List<MediaType> accepted) {
+        double quality = 0d;
+        int specificity = -1;
+        for (MediaType range : accepted) {
+            if (!range.includes(mediaType)) {
+                continue;
+            }
+            int rangeSpecificity =
+                    range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+            if (rangeSpecificity > specificity) {
+                specificity = rangeSpecificity;
+                quality = range.getQualityValue();
+            }
+        }
+        return quality;
+    }
+}
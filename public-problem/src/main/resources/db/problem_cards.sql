@@ -0,0 +1,26 @@
+-- 题目卡片读模型：每道已公开题目在每种列表语言下一行，列表页的标题、难度、标签、限制与元数据均已展开。
+-- 由 public-problem 的 ProblemCardReadModel 增量维护，可通过 JMX 的 problemcards 端点全量重建与对账。
+-- JSON 列以 TEXT 保存原样序列化结果，对账时可逐字节比较。
+CREATE TABLE IF NOT EXISTS problem_cards
+(
+    problem_id           BIGINT       NOT NULL,
+    lang_code            VARCHAR(16)  NOT NULL COMMENT '列表语言，标题已按该语言优先、zh-CN、en 的顺序回退',
+    slug                 VARCHAR(128) NOT NULL,
+    title                VARCHAR(255) NULL,
+    difficulty_id        INT          NULL,
+    difficulty_code      VARCHAR(32)  NULL,
+    tags_json            TEXT         NOT NULL COMMENT '[{"id","name","slug"}]，按名称排序',
+    time_limit_ms        INT          NULL,
+    memory_limit_kb      INT          NULL,
+    companies_json       TEXT         NOT NULL COMMENT '从 problems.meta_json 提取的公司列表',
+    frequency            DOUBLE       NULL,
+    paid_only            TINYINT(1)   NULL,
+    frontend_id          INT          NULL,
+    leetcode_style       TINYINT(1)   NULL,
+    problem_updated_at   DATETIME(6)  NOT NULL COMMENT '同步时 problems.updated_at，也是列表排序键',
+    statement_updated_at DATETIME(6)  NULL COMMENT '同步时该题题面的最大 updated_at',
+    synced_at            DATETIME(6)  NOT NULL,
+    PRIMARY KEY (problem_id, lang_code),
+    KEY idx_problem_cards_page (lang_code, problem_updated_at DESC, problem_id DESC)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
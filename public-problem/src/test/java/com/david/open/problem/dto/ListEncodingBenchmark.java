@@ -0,0 +1,133 @@
+package com.david.open.problem.dto;
+
+import com.david.open.problem.dto.ProblemCardView.DifficultyInfo;
+import com.david.open.problem.dto.ProblemCardView.ProblemMetadata;
+import com.david.open.problem.dto.ProblemCardView.ProblemStats;
+import com.david.open.problem.dto.ProblemCardView.TagInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 题目列表响应在 JSON、CBOR、Smile 三种编码下的序列化耗时；{@link #main} 先打印各编码的原始与 gzip
+ * 后字节数，再运行基准。
+ *
+ * <p>响应体为合成数据，每道题带三个标签与三家公司；映射器与应用一样由
+ * {@link Jackson2ObjectMapperBuilder} 构建。先 {@code mvn test-compile}，再以测试类路径运行本类。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListEncodingBenchmark {
+
+    @Param({"12", "50"})
+    public int items;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private ProblemListResponse response;
+
+    @Setup
+    public void setUp() {
+        mapper = mapper(format);
+        response = response(items);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        for (int size : new int[] {12, 50}) {
+            ProblemListResponse response = response(size);
+            for (String format : new String[] {"json", "cbor", "smile"}) {
+                byte[] encoded = mapper(format).writeValueAsBytes(response);
+                System.out.printf(
+                        "%2d items %-5s %6d B, gzip %6d B%n",
+                        size, format, encoded.length, gzip(encoded).length);
+            }
+        }
+        String include = ListEncodingBenchmark.class.getSimpleName();
+        new Runner(new OptionsBuilder().include(include).build()).run();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        JsonFactory factory =
+                switch (format) {
+                    case "cbor" -> new CBORFactory();
+                    case "smile" -> new SmileFactory();
+                    default -> new JsonFactory();
+                };
+        return Jackson2ObjectMapperBuilder.json().factory(factory).build();
+    }
+
+    private static ProblemListResponse response(int size) {
+        String[] difficulties = {"easy", "medium", "hard"};
+        List<ProblemCardView> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<TagInfo> tags =
+                    List.of(
+                            new TagInfo(1L + i % 7, "动态规划", "dynamic-programming"),
+                            new TagInfo(20L + i % 5, "哈希表", "hash-table"),
+                            new TagInfo(40L + i % 3, "双指针", "two-pointers"));
+            ProblemMetadata metadata =
+                    new ProblemMetadata(
+                            List.of("字节跳动", "腾讯", "Amazon"),
+                            0.5 + (i % 10) / 20d,
+                            i % 9 == 0,
+                            1000 + i,
+                            true);
+            cards.add(
+                    new ProblemCardView(
+                            10_000L + i,
+                            "longest-substring-without-repeating-characters-" + i,
+                            "无重复字符的最长子串 " + i,
+                            DifficultyInfo.of(i % 3 + 1, difficulties[i % 3]),
+                            tags,
+                            new ProblemStats(1000, 262_144),
+                            metadata,
+                            LocalDateTime.of(2024, 3, 1, 12, 0).minusMinutes(i)));
+        }
+        return new ProblemListResponse(
+                1_850, true, 1, size, true, cards, "MTcwOTI5NDQwMDAwMDAwMDoxMDAwMA", null);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+}